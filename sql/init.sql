@@ -1 +1,10 @@
-CREATE EXTENSION IF NOT EXISTS unaccent;
\ No newline at end of file
+CREATE EXTENSION IF NOT EXISTS unaccent;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Igual que en V24__SearchTrigramIndexes.sql (en dev Flyway está deshabilitado)
+CREATE OR REPLACE FUNCTION f_unaccent(text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+AS
+$$
+SELECT public.unaccent('public.unaccent'::regdictionary, $1)
+$$;
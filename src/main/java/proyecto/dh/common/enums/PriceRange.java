@@ -0,0 +1,39 @@
+package proyecto.dh.common.enums;
+
+/**
+ * Rangos de precio para las facetas de la búsqueda. El límite inferior se incluye y el superior no.
+ */
+public enum PriceRange {
+    UNDER_50(0, 50),
+    FROM_50_TO_100(50, 100),
+    FROM_100_TO_250(100, 250),
+    FROM_250_TO_500(250, 500),
+    OVER_500(500, Double.POSITIVE_INFINITY);
+
+    private static final PriceRange[] VALUES = values();
+
+    private final double from;
+    private final double to;
+
+    PriceRange(double from, double to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public double getFrom() {
+        return from;
+    }
+
+    public double getTo() {
+        return to;
+    }
+
+    public static PriceRange of(double price) {
+        for (PriceRange range : VALUES) {
+            if (price < range.to) {
+                return range;
+            }
+        }
+        return OVER_500;
+    }
+}
@@ -0,0 +1,7 @@
+package proyecto.dh.common.enums;
+
+public enum ProductSort {
+    ID,
+    PRICE,
+    NAME
+}
@@ -0,0 +1,8 @@
+package proyecto.dh.common.enums;
+
+public enum SearchKind {
+    SEARCH,
+    RANKED,
+    FUZZY,
+    SUGGESTION
+}
@@ -0,0 +1,53 @@
+package proyecto.dh.common.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Ejecuta acciones en memoria (índices, cachés, versiones) recién cuando se confirma la transacción
+ * actual, para que una transacción deshecha no deje rastros. Sin transacción activa se ejecutan en el acto.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Ejecuta la acción al confirmarse la transacción actual, o ya mismo si no hay ninguna.
+     */
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Igual que {@link #run(Runnable)}, pero ejecuta la acción con el bloqueo tomado.
+     */
+    public static void run(Lock lock, Runnable action) {
+        run(() -> {
+            lock.lock();
+            try {
+                action.run();
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Indica si hay una transacción en curso, es decir, si {@link #run(Runnable)} va a diferir la acción.
+     */
+    public static boolean inTransaction() {
+        return TransactionSynchronizationManager.isSynchronizationActive();
+    }
+}
@@ -0,0 +1,102 @@
+package proyecto.dh.common.utils;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Pliegue de texto para búsquedas: minúsculas y sin acentos, equivalente a unaccent(lower(...)).
+ * <p>
+ * El texto ASCII ya en minúsculas se devuelve sin copiar. Los caracteres de Latin-1 y Latin
+ * Extendido-A se resuelven con una tabla precalculada (incluye ligaduras como ß → ss o æ → ae,
+ * igual que unaccent), y las marcas combinantes sueltas se descartan. Solo el texto con otros
+ * alfabetos pasa por {@link Normalizer}, con el patrón de marcas ya compilado.
+ */
+public final class TextFolder {
+
+    private static final char TABLE_START = 0x80;
+    private static final char TABLE_END = 0x17F;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final String[] FOLDS = buildTable();
+
+    private TextFolder() {
+    }
+
+    /**
+     * Pasa el texto a minúsculas y le quita los acentos.
+     *
+     * @param text Texto a plegar.
+     * @return El texto plegado (la misma instancia si no había nada que cambiar).
+     */
+    public static String fold(String text) {
+        return fold(text, false);
+    }
+
+    /**
+     * Igual que {@link #fold(String)}, pero además quita los espacios en blanco.
+     *
+     * @param text Texto a plegar.
+     * @return El texto plegado y sin espacios.
+     */
+    public static String foldCompact(String text) {
+        return fold(text, true);
+    }
+
+    private static String fold(String text, boolean dropWhitespace) {
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c >= 0x80 || (c >= 'A' && c <= 'Z') || (dropWhitespace && Character.isWhitespace(c))) {
+                break;
+            }
+            i++;
+        }
+        if (i == length) {
+            return text;
+        }
+
+        StringBuilder folded = new StringBuilder(length);
+        folded.append(text, 0, i);
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (dropWhitespace && Character.isWhitespace(c)) {
+                continue;
+            }
+            if (c < 0x80) {
+                folded.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+            } else if (c <= TABLE_END) {
+                folded.append(FOLDS[c - TABLE_START]);
+            } else if (c >= 0x0300 && c <= 0x036F) {
+                // Marca combinante de un texto ya descompuesto: se descarta
+            } else {
+                return slowFold(text, dropWhitespace);
+            }
+        }
+        return folded.toString();
+    }
+
+    private static String slowFold(String text, boolean dropWhitespace) {
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        return dropWhitespace ? WHITESPACE.matcher(folded).replaceAll("") : folded;
+    }
+
+    private static String[] buildTable() {
+        String[] table = new String[TABLE_END - TABLE_START + 1];
+        for (char c = TABLE_START; c <= TABLE_END; c++) {
+            String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            table[c - TABLE_START] = COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+        }
+        // Letras sin descomposición canónica que unaccent sí pliega
+        String[][] specials = {
+                {"ß", "ss"}, {"æ", "ae"}, {"Æ", "ae"}, {"œ", "oe"}, {"Œ", "oe"}, {"ø", "o"}, {"Ø", "o"},
+                {"đ", "d"}, {"Đ", "d"}, {"ð", "d"}, {"Ð", "d"}, {"ħ", "h"}, {"Ħ", "h"}, {"ł", "l"}, {"Ł", "l"},
+                {"ŧ", "t"}, {"Ŧ", "t"}, {"þ", "th"}, {"Þ", "th"}, {"ı", "i"}, {"ĳ", "ij"}, {"Ĳ", "ij"}
+        };
+        for (String[] special : specials) {
+            table[special[0].charAt(0) - TABLE_START] = special[1];
+        }
+        return table;
+    }
+}
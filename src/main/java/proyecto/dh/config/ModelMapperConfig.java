@@ -1,29 +0,0 @@
-package proyecto.dh.config;
-
-import org.modelmapper.Condition;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.MatchingStrategies;
-import org.modelmapper.spi.MappingContext;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
-@Configuration
-public class ModelMapperConfig {
-
-    @Bean
-    public ModelMapper modelMapper() {
-        ModelMapper modelMapper = new ModelMapper();
-
-        Condition<Object, Object> notNull = new Condition<Object, Object>() {
-            @Override
-            public boolean applies(MappingContext<Object, Object> context) {
-                return context.getSource() != null;
-            }
-        };
-
-        modelMapper.getConfiguration().setPropertyCondition(notNull);
-        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
-
-        return modelMapper;
-    }
-}
\ No newline at end of file
@@ -18,8 +18,9 @@ public class WebConfig implements WebMvcConfigurer {
             public void addCorsMappings(CorsRegistry registry) {
                 registry.addMapping("/**")
                         .allowedOriginPatterns("*") // Permite solicitudes desde cualquier origen
-                        .allowedMethods("GET", "POST", "PUT", "DELETE")
+                        .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE")
                         .allowedHeaders("*")
+                        .exposedHeaders("ETag")
                         .allowCredentials(true)
                         .maxAge(3600);
             }
@@ -15,7 +15,9 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
-@Table(name = "attachments")
+@Table(name = "attachments", indexes = {
+        @Index(name = "idx_attachments_product_id", columnList = "product_id, id")
+})
 public class Attachment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,31 @@
+package proyecto.dh.resources.attachment.mapper;
+
+import org.springframework.stereotype.Component;
+import proyecto.dh.resources.attachment.dto.AttachmentDTO;
+import proyecto.dh.resources.attachment.entity.Attachment;
+
+/**
+ * Conversión entre {@link Attachment} y {@link AttachmentDTO} sin reflexión.
+ */
+@Component
+public class AttachmentMapper {
+
+    public AttachmentDTO toDTO(Attachment attachment) {
+        if (attachment == null) {
+            return null;
+        }
+        AttachmentDTO attachmentDTO = new AttachmentDTO();
+        attachmentDTO.setId(attachment.getId());
+        attachmentDTO.setUrl(attachment.getUrl());
+        attachmentDTO.setFileName(attachment.getFileName());
+        return attachmentDTO;
+    }
+
+    public Attachment toEntity(AttachmentDTO attachmentDTO) {
+        Attachment attachment = new Attachment();
+        attachment.setId(attachmentDTO.getId());
+        attachment.setUrl(attachmentDTO.getUrl());
+        attachment.setFileName(attachmentDTO.getFileName());
+        return attachment;
+    }
+}
@@ -1,12 +1,12 @@
 package proyecto.dh.resources.attachment.service;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import proyecto.dh.exceptions.handler.BadRequestException;
 import proyecto.dh.resources.attachment.dto.AttachmentDTO;
 import proyecto.dh.resources.attachment.entity.Attachment;
+import proyecto.dh.resources.attachment.mapper.AttachmentMapper;
 import proyecto.dh.resources.attachment.repository.AttachmentRepository;
 import proyecto.dh.resources.product.entity.Product;
 import proyecto.dh.resources.product.entity.ProductCategory;
@@ -25,7 +25,7 @@ public class AttachmentService {
     private AttachmentRepository attachmentRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private AttachmentMapper attachmentMapper;
 
     public Attachment uploadAttachment(MultipartFile file) throws IOException, BadRequestException {
         String fileKey = s3Service.uploadFile(file);
@@ -85,7 +85,7 @@ public class AttachmentService {
     }
 
     public AttachmentDTO convertToDto(Attachment attachment) {
-        AttachmentDTO attachmentDTO = modelMapper.map(attachment, AttachmentDTO.class);
+        AttachmentDTO attachmentDTO = attachmentMapper.toDTO(attachment);
         if (attachment.getProduct() != null) {
             attachmentDTO.setProductsIds(List.of(attachment.getProduct().getId()));
         }
@@ -93,7 +93,7 @@ public class AttachmentService {
     }
 
     public Attachment convertToEntity(AttachmentDTO attachmentDTO) {
-        return modelMapper.map(attachmentDTO, Attachment.class);
+        return attachmentMapper.toEntity(attachmentDTO);
     }
 
     public void validateFileTypeImages(Attachment attachment) throws BadRequestException {
@@ -0,0 +1,43 @@
+package proyecto.dh.resources.favorite.mapper;
+
+import org.springframework.stereotype.Component;
+import proyecto.dh.resources.favorite.dto.ProductFavoriteDTO;
+import proyecto.dh.resources.favorite.dto.ProductFavoriteSaveDTO;
+import proyecto.dh.resources.favorite.entity.ProductFavorite;
+import proyecto.dh.resources.product.entity.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conversión entre {@link ProductFavorite} y sus DTOs.
+ */
+@Component
+public class FavoriteMapper {
+
+    public ProductFavoriteDTO toDTO(ProductFavorite favorite) {
+        ProductFavoriteDTO favoriteDTO = new ProductFavoriteDTO();
+        favoriteDTO.setId(favorite.getId());
+        if (favorite.getUser() != null) {
+            favoriteDTO.setUserId(favorite.getUser().getId());
+        }
+        if (favorite.getProduct() != null) {
+            List<Long> productIds = new ArrayList<>(favorite.getProduct().size());
+            for (Product product : favorite.getProduct()) {
+                productIds.add(product.getId());
+            }
+            favoriteDTO.setProductIds(productIds);
+        }
+        favoriteDTO.setCreationDateTime(favorite.getCreationDateTime());
+        return favoriteDTO;
+    }
+
+    public ProductFavorite toEntity(ProductFavoriteSaveDTO favoriteSaveDTO) {
+        ProductFavorite favorite = new ProductFavorite();
+        // El constructor ya asigna la fecha actual; sólo se reemplaza si viene informada
+        if (favoriteSaveDTO.getCreationDateTime() != null) {
+            favorite.setCreationDateTime(favoriteSaveDTO.getCreationDateTime());
+        }
+        return favorite;
+    }
+}
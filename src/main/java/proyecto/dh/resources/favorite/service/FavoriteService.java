@@ -3,11 +3,11 @@ package proyecto.dh.resources.favorite.service;
 import org.springframework.validation.annotation.Validated;
 import proyecto.dh.exceptions.handler.NotFoundException;
 import jakarta.transaction.Transactional;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 import proyecto.dh.resources.favorite.dto.ProductFavoriteDTO;
 import proyecto.dh.resources.favorite.dto.ProductFavoriteSaveDTO;
 import proyecto.dh.resources.favorite.entity.ProductFavorite;
+import proyecto.dh.resources.favorite.mapper.FavoriteMapper;
 import proyecto.dh.resources.favorite.repository.ProductFavoriteRepository;
 import proyecto.dh.resources.product.entity.Product;
 import proyecto.dh.resources.product.repository.ProductRepository;
@@ -30,13 +30,13 @@ public class FavoriteService {
 
     private final UserRepository userRepository;
 
-    private final ModelMapper modelMapper;
+    private final FavoriteMapper favoriteMapper;
 
-    public FavoriteService(ProductFavoriteRepository favoriteRepository, ProductRepository productRepository, UserRepository userRepository, ModelMapper modelMapper) {
+    public FavoriteService(ProductFavoriteRepository favoriteRepository, ProductRepository productRepository, UserRepository userRepository, FavoriteMapper favoriteMapper) {
         this.favoriteRepository = favoriteRepository;
         this.productRepository = productRepository;
         this.userRepository = userRepository;
-        this.modelMapper = modelMapper;
+        this.favoriteMapper = favoriteMapper;
     }
 
     @Transactional
@@ -85,7 +85,7 @@ public class FavoriteService {
         return convertToDTO(favorite);
     }
     public ProductFavorite convertToEntity(ProductFavoriteSaveDTO favoriteSaveDTO){
-        return modelMapper.map(favoriteSaveDTO, ProductFavorite.class);
+        return favoriteMapper.toEntity(favoriteSaveDTO);
     }
 
     private void syncFavoriteWithProducts(ProductFavorite favorite, List<Long> productIds) throws NotFoundException {
@@ -110,14 +110,7 @@ public class FavoriteService {
     }
 
     private ProductFavoriteDTO convertToDTO(ProductFavorite favorite) {
-        ProductFavoriteDTO favoriteDTO = modelMapper.map(favorite, ProductFavoriteDTO.class);
-        favoriteDTO.setProductIds(
-                favorite.getProduct().stream()
-                        .map(Product::getId)
-                        .collect(Collectors.toList())
-        );
-        favoriteDTO.setUserId(favorite.getUser().getId());
-        return favoriteDTO;
+        return favoriteMapper.toDTO(favorite);
     }
 
     private Optional<ProductFavorite> findByInEntity(Long id){
@@ -0,0 +1,34 @@
+package proyecto.dh.resources.product.cache;
+
+import org.springframework.stereotype.Component;
+import proyecto.dh.common.utils.AfterCommit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versión del catálogo público (productos, categorías, características y políticas).
+ * Cada escritura del catálogo la incrementa al confirmar su transacción, y los endpoints públicos
+ * la usan como ETag para responder 304 Not Modified sin consultar la base de datos.
+ * Se inicializa con la hora de arranque para que un ETag emitido antes de un reinicio no coincida.
+ */
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public long current() {
+        return version.get();
+    }
+
+    public String eTag() {
+        return "\"catalog-" + version.get() + "\"";
+    }
+
+    /**
+     * Incrementa la versión al confirmar la transacción actual (o de inmediato si no hay una),
+     * para no publicar una versión nueva mientras la base todavía devuelve los datos anteriores.
+     */
+    public void bump() {
+        AfterCommit.run(version::incrementAndGet);
+    }
+}
@@ -0,0 +1,118 @@
+package proyecto.dh.resources.product.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import proyecto.dh.common.utils.AfterCommit;
+import proyecto.dh.resources.product.dto.CategoryFeatureDTO;
+import proyecto.dh.resources.product.dto.ProductCacheStatsDTO;
+import proyecto.dh.resources.product.dto.ProductDTO;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Caché en memoria de los DTOs de productos públicos.
+ * Mantiene una entrada por ID y otra para los listados (completo y páginas por cursor),
+ * ambas acotadas por tamaño y TTL. Las escrituras de productos, categorías y reservas
+ * invalidan las entradas afectadas.
+ */
+@Component
+public class ProductCache {
+
+    private final Cache<Long, ProductDTO> products;
+    private final Cache<String, Object> lists;
+
+    public ProductCache(@Value("${product.cache.max-size:10000}") long maxSize,
+                        @Value("${product.cache.max-lists:200}") long maxLists,
+                        @Value("${product.cache.ttl:10m}") Duration ttl) {
+        this.products = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+        this.lists = Caffeine.newBuilder().maximumSize(maxLists).expireAfterWrite(ttl).recordStats().build();
+    }
+
+    public ProductDTO getProduct(Long id) {
+        return products.getIfPresent(id);
+    }
+
+    public void putProduct(ProductDTO product) {
+        products.put(product.getId(), product);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T getList(String key) {
+        return (T) lists.getIfPresent(key);
+    }
+
+    public void putList(String key, Object value) {
+        lists.put(key, value);
+    }
+
+    /**
+     * Invalida un producto y todos los listados.
+     */
+    public void evictProduct(Long productId) {
+        invalidateNowAndAfterCommit(() -> {
+            products.invalidate(productId);
+            lists.invalidateAll();
+        });
+    }
+
+    /**
+     * Invalida varios productos y todos los listados.
+     */
+    public void evictProducts(Collection<Long> productIds) {
+        invalidateNowAndAfterCommit(() -> {
+            products.invalidateAll(productIds);
+            lists.invalidateAll();
+        });
+    }
+
+    /**
+     * Invalida solo los listados, para altas que no tienen entradas por ID en la caché.
+     */
+    public void evictLists() {
+        invalidateNowAndAfterCommit(lists::invalidateAll);
+    }
+
+    /**
+     * Invalida los productos que embeben datos de la categoría: los que pertenecen a ella
+     * y los que usan alguna de sus características.
+     */
+    public void evictCategory(Long categoryId, Collection<Long> featureIds) {
+        invalidateNowAndAfterCommit(() -> {
+            products.asMap().values().removeIf(product -> embedsCategory(product, categoryId, featureIds));
+            lists.invalidateAll();
+        });
+    }
+
+    public ProductCacheStatsDTO stats() {
+        return new ProductCacheStatsDTO(
+                ProductCacheStatsDTO.CacheStats.of(products.stats(), products.estimatedSize()),
+                ProductCacheStatsDTO.CacheStats.of(lists.stats(), lists.estimatedSize()),
+                null);
+    }
+
+    private boolean embedsCategory(ProductDTO product, Long categoryId, Collection<Long> featureIds) {
+        if (product.getCategory() != null && categoryId.equals(product.getCategory().getId())) {
+            return true;
+        }
+        if (product.getFeatures() != null && featureIds != null) {
+            for (CategoryFeatureDTO feature : product.getFeatures()) {
+                if (featureIds.contains(feature.getId())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Se invalida de inmediato y otra vez al confirmar, por si una lectura concurrente
+    // volvió a cachear el estado anterior mientras la transacción seguía abierta
+    private void invalidateNowAndAfterCommit(Runnable invalidation) {
+        invalidation.run();
+        if (AfterCommit.inTransaction()) {
+            AfterCommit.run(invalidation);
+        }
+    }
+}
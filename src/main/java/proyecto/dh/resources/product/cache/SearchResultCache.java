@@ -0,0 +1,54 @@
+package proyecto.dh.resources.product.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import proyecto.dh.resources.product.dto.ProductCacheStatsDTO;
+
+import java.time.Duration;
+
+/**
+ * Caché de resultados de búsqueda normalizados: guarda los IDs encontrados (y en el modo por
+ * relevancia, el total y las facetas), no los productos, que se arman con {@link ProductCache}.
+ * La clave usa el texto ya plegado, así que "Cámara" y "camara" comparten entrada, e incluye la
+ * versión del catálogo: cualquier escritura que la incremente deja las entradas anteriores sin uso
+ * hasta que las desalojen el tamaño máximo o el TTL.
+ */
+@Component
+public class SearchResultCache {
+
+    private final Cache<Key, Object> results;
+    private final CatalogVersion catalogVersion;
+
+    public SearchResultCache(CatalogVersion catalogVersion,
+                             @Value("${product.cache.max-searches:1000}") long maxSearches,
+                             @Value("${product.cache.ttl:10m}") Duration ttl) {
+        this.catalogVersion = catalogVersion;
+        this.results = Caffeine.newBuilder().maximumSize(maxSearches).expireAfterWrite(ttl).recordStats().build();
+    }
+
+    /**
+     * Arma la clave de una búsqueda con la versión actual del catálogo. Debe pedirse antes de buscar,
+     * para que un resultado calculado mientras se confirma una escritura quede bajo la versión anterior.
+     */
+    public Key key(String mode, String normalizedQuery, Long categoryId, int page, int size) {
+        return new Key(catalogVersion.current(), mode, normalizedQuery, categoryId, page, size);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key key) {
+        return (T) results.getIfPresent(key);
+    }
+
+    public void put(Key key, Object value) {
+        results.put(key, value);
+    }
+
+    public ProductCacheStatsDTO.CacheStats stats() {
+        return ProductCacheStatsDTO.CacheStats.of(results.stats(), results.estimatedSize());
+    }
+
+    public record Key(long catalogVersion, String mode, String query, Long categoryId, int page, int size) {
+    }
+}
@@ -8,13 +8,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.security.PermitAll;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import proyecto.dh.exceptions.handler.NotFoundException;
+import proyecto.dh.resources.product.cache.CatalogVersion;
 import proyecto.dh.resources.product.dto.CategoryDTO;
 import proyecto.dh.resources.product.service.CategoryService;
 
@@ -32,6 +34,9 @@ public class CategoryController {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private CatalogVersion catalogVersion;
+
     /**
      * Recupera todas las categorías en el sistema.
      *
@@ -41,9 +46,13 @@ public class CategoryController {
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Categorías recuperadas con éxito", content = @Content(schema = @Schema(implementation = CategoryDTO.class))), @ApiResponse(responseCode = "500", description = "Error interno del servidor")})
     @PermitAll
     @GetMapping()
-    public ResponseEntity<List<CategoryDTO>> findAll() {
+    public ResponseEntity<List<CategoryDTO>> findAll(WebRequest webRequest) {
+        String eTag = catalogVersion.eTag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         List<CategoryDTO> categories = categoryService.findAll();
-        return new ResponseEntity<>(categories, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(categories);
     }
 
     /**
@@ -57,8 +66,12 @@ public class CategoryController {
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Categoría recuperada con éxito", content = @Content(schema = @Schema(implementation = CategoryDTO.class))), @ApiResponse(responseCode = "404", description = "Categoría no encontrada"), @ApiResponse(responseCode = "500", description = "Error interno del servidor")})
     @PermitAll
     @GetMapping("/{id}")
-    public ResponseEntity<CategoryDTO> findById(@PathVariable Long id) throws NotFoundException {
+    public ResponseEntity<CategoryDTO> findById(@PathVariable Long id, WebRequest webRequest) throws NotFoundException {
+        String eTag = catalogVersion.eTag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         CategoryDTO category = categoryService.findById(id);
-        return new ResponseEntity<>(category, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(category);
     }
 }
\ No newline at end of file
@@ -8,12 +8,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.security.PermitAll;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import proyecto.dh.exceptions.handler.NotFoundException;
+import proyecto.dh.resources.product.cache.CatalogVersion;
 import proyecto.dh.resources.product.dto.CategoryFeatureDTO;
 import proyecto.dh.resources.product.service.FeatureService;
 
@@ -31,6 +34,9 @@ public class FeatureController {
     @Autowired
     private FeatureService featureService;
 
+    @Autowired
+    private CatalogVersion catalogVersion;
+
     /**
      * Recupera todas las características de las categorías en el sistema.
      *
@@ -40,9 +46,13 @@ public class FeatureController {
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Características recuperadas con éxito", content = @Content(schema = @Schema(implementation = CategoryFeatureDTO.class))), @ApiResponse(responseCode = "500", description = "Error interno del servidor")})
     @PermitAll
     @GetMapping
-    public ResponseEntity<List<CategoryFeatureDTO>> findAll() {
+    public ResponseEntity<List<CategoryFeatureDTO>> findAll(WebRequest webRequest) {
+        String eTag = catalogVersion.eTag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         List<CategoryFeatureDTO> features = featureService.findAll();
-        return ResponseEntity.ok(features);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(features);
     }
 
     /**
@@ -56,8 +66,12 @@ public class FeatureController {
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Características recuperada con éxito", content = @Content(schema = @Schema(implementation = CategoryFeatureDTO.class))), @ApiResponse(responseCode = "404", description = "Características no encontrada"), @ApiResponse(responseCode = "500", description = "Error interno del servidor")})
     @PermitAll
     @GetMapping("/{featureId}")
-    public ResponseEntity<CategoryFeatureDTO> findById(@PathVariable Long featureId) throws NotFoundException {
+    public ResponseEntity<CategoryFeatureDTO> findById(@PathVariable Long featureId, WebRequest webRequest) throws NotFoundException {
+        String eTag = catalogVersion.eTag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         CategoryFeatureDTO feature = featureService.findById(featureId);
-        return ResponseEntity.ok(feature);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(feature);
     }
 }
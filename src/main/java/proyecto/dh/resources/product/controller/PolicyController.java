@@ -8,12 +8,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.security.PermitAll;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import proyecto.dh.exceptions.handler.NotFoundException;
+import proyecto.dh.resources.product.cache.CatalogVersion;
 import proyecto.dh.resources.product.dto.CategoryPolicyDTO;
 import proyecto.dh.resources.product.service.PolicyService;
 
@@ -31,6 +34,9 @@ public class PolicyController {
     @Autowired
     private PolicyService policyService;
 
+    @Autowired
+    private CatalogVersion catalogVersion;
+
     /**
      * Recupera todas las políticas de las categorías en el sistema.
      *
@@ -40,9 +46,13 @@ public class PolicyController {
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Políticas recuperadas con éxito", content = @Content(schema = @Schema(implementation = CategoryPolicyDTO.class))), @ApiResponse(responseCode = "500", description = "Error interno del servidor")})
     @PermitAll
     @GetMapping
-    public ResponseEntity<List<CategoryPolicyDTO>> findAll() {
+    public ResponseEntity<List<CategoryPolicyDTO>> findAll(WebRequest webRequest) {
+        String eTag = catalogVersion.eTag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         List<CategoryPolicyDTO> policies = policyService.findAll();
-        return ResponseEntity.ok(policies);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(policies);
     }
 
     /**
@@ -56,8 +66,12 @@ public class PolicyController {
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Política recuperada con éxito", content = @Content(schema = @Schema(implementation = CategoryPolicyDTO.class))), @ApiResponse(responseCode = "404", description = "Política no encontrada"), @ApiResponse(responseCode = "500", description = "Error interno del servidor")})
     @PermitAll
     @GetMapping("/{policyId}")
-    public ResponseEntity<CategoryPolicyDTO> findById(@PathVariable Long policyId) throws NotFoundException {
+    public ResponseEntity<CategoryPolicyDTO> findById(@PathVariable Long policyId, WebRequest webRequest) throws NotFoundException {
+        String eTag = catalogVersion.eTag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         CategoryPolicyDTO policy = policyService.findById(policyId);
-        return ResponseEntity.ok(policy);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(policy);
     }
 }
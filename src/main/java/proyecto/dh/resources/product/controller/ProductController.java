@@ -8,15 +8,32 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.annotation.security.PermitAll;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import proyecto.dh.common.enums.ExportFormat;
+import proyecto.dh.common.enums.ProductSort;
+import proyecto.dh.exceptions.handler.BadRequestException;
 import proyecto.dh.exceptions.handler.NotFoundException;
+import proyecto.dh.resources.product.cache.CatalogVersion;
+import proyecto.dh.resources.product.dto.AvailabilityCalendarDTO;
 import proyecto.dh.resources.product.dto.AvailabilityDTO;
+import proyecto.dh.resources.product.dto.ProductCardDTO;
 import proyecto.dh.resources.product.dto.ProductDTO;
+import proyecto.dh.resources.product.dto.ProductPageDTO;
+import proyecto.dh.resources.product.dto.ProductSearchPageDTO;
+import proyecto.dh.resources.product.service.ProductExportService;
 import proyecto.dh.resources.product.service.ProductService;
+import proyecto.dh.resources.reservation.service.AvailabilityService;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controlador para gestionar productos.
@@ -30,6 +47,15 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductExportService productExportService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
     /**
      * Recupera todos los productos en el sistema.
      *
@@ -39,9 +65,76 @@ public class ProductController {
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Productos recuperados con éxito", content = @Content(schema = @Schema(implementation = ProductDTO.class))), @ApiResponse(responseCode = "500", description = "Error interno del servidor")})
     @PermitAll
     @GetMapping()
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
+    public ResponseEntity<List<ProductDTO>> getAllProducts(WebRequest webRequest) {
+        String eTag = catalogVersion.eTag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         List<ProductDTO> products = productService.findAll();
-        return new ResponseEntity<>(products, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(products);
+    }
+
+    /**
+     * Recupera una página de productos usando paginación por cursor.
+     *
+     * @param after cursor devuelto en la página anterior; se omite para obtener la primera página
+     * @param limit cantidad máxima de productos por página
+     * @param sort  criterio de orden: id, price o name
+     * @return la página de productos y el cursor siguiente con estado HTTP 200 (OK)
+     * @throws BadRequestException si el límite, el cursor o el orden no son válidos
+     */
+    @Operation(summary = "Obtener productos paginados por cursor", description = "Esta operación recupera una página de productos ordenada por id, precio o nombre. Se activa al enviar el parámetro limit.")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Página recuperada con éxito", content = @Content(schema = @Schema(implementation = ProductPageDTO.class))), @ApiResponse(responseCode = "400", description = "Parámetros de paginación inválidos"), @ApiResponse(responseCode = "500", description = "Error interno del servidor")})
+    @PermitAll
+    @GetMapping(params = "limit")
+    public ResponseEntity<ProductPageDTO> getProductsPage(@RequestParam(required = false) String after, @RequestParam int limit, @RequestParam(defaultValue = "id") String sort, WebRequest webRequest) throws BadRequestException {
+        String eTag = catalogVersion.eTag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        ProductPageDTO page = productService.findPage(after, limit, parseSort(sort));
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(page);
+    }
+
+    /**
+     * Recupera las tarjetas de producto para los listados.
+     *
+     * @param after ID del último producto recibido; se omite para obtener la primera página
+     * @param limit cantidad máxima de tarjetas
+     * @return las tarjetas ordenadas por ID con estado HTTP 200 (OK)
+     * @throws BadRequestException si el límite no es válido
+     */
+    @Operation(summary = "Obtener tarjetas de productos", description = "Esta operación recupera sólo los datos necesarios para los listados: id, nombre, precio, tipo de renta, categoría y primera imagen.")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Tarjetas recuperadas con éxito", content = @Content(schema = @Schema(implementation = ProductCardDTO.class))), @ApiResponse(responseCode = "400", description = "Límite inválido"), @ApiResponse(responseCode = "500", description = "Error interno del servidor")})
+    @PermitAll
+    @GetMapping("/cards")
+    public ResponseEntity<List<ProductCardDTO>> getProductCards(@RequestParam(required = false) Long after, @RequestParam(defaultValue = "50") int limit, WebRequest webRequest) throws BadRequestException {
+        String eTag = catalogVersion.eTag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        List<ProductCardDTO> cards = productService.findCards(after, limit);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(cards);
+    }
+
+    /**
+     * Exporta el catálogo completo como flujo, sin construir la lista de productos en memoria.
+     *
+     * @param format formato de salida: ndjson (un ProductDTO por línea) o csv
+     * @return el catálogo transmitido por partes con estado HTTP 200 (OK)
+     * @throws BadRequestException si el formato no es válido
+     */
+    @Operation(summary = "Exportar catálogo", description = "Esta operación transmite todos los productos en formato NDJSON o CSV con memoria constante.")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Catálogo exportado con éxito"), @ApiResponse(responseCode = "400", description = "Formato inválido"), @ApiResponse(responseCode = "500", description = "Error interno del servidor")})
+    @PermitAll
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = "ndjson") String format) throws BadRequestException {
+        ExportFormat exportFormat = parseExportFormat(format);
+        StreamingResponseBody body = outputStream -> productExportService.export(exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." + exportFormat.getExtension() + "\"")
+                .body(body);
     }
 
     /**
@@ -54,25 +147,141 @@ public class ProductController {
     @Operation(summary = "Obtener producto por ID", description = "Esta operación recupera un producto por su ID.")
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Producto recuperado con éxito", content = @Content(schema = @Schema(implementation = ProductDTO.class))), @ApiResponse(responseCode = "404", description = "Producto no encontrado"), @ApiResponse(responseCode = "500", description = "Error interno del servidor")})
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) throws NotFoundException {
+    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id, WebRequest webRequest) throws NotFoundException {
+        String eTag = catalogVersion.eTag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         ProductDTO product = productService.findById(id);
-        return new ResponseEntity<>(product, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(product);
     }
 
     @GetMapping("/search")
-    public List<ProductDTO> search(@RequestParam String searchText, @RequestParam(required = false) Long categoryId) throws NotFoundException {
-        return productService.searchProducts(searchText, categoryId);
+    public List<ProductDTO> search(@RequestParam String searchText,
+                                   @RequestParam(required = false) Long categoryId,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) throws NotFoundException, BadRequestException {
+        return productService.searchProducts(searchText, categoryId, startDate, endDate);
+    }
+
+    /**
+     * Busca productos por relevancia, paginado, con las facetas de los resultados.
+     *
+     * @param searchText el texto a buscar
+     * @param categoryId la categoría por la que filtrar, opcional
+     * @param startDate  el inicio del rango en el que el producto debe tener una unidad libre cada día, opcional
+     * @param endDate    el fin del rango (incluido), obligatorio si se indica el inicio
+     * @param page       el número de página, desde 0
+     * @param size       el tamaño de la página
+     * @return la página de productos, del más al menos relevante, con el total de coincidencias y las facetas
+     * @throws BadRequestException si la página, el tamaño o el rango de fechas no son válidos
+     * @throws NotFoundException   si la categoría no existe
+     */
+    @Operation(summary = "Buscar productos por relevancia", description = "Con mode=ranked, ordena los resultados por relevancia (nombre > categoría > descripción), los pagina y cuenta los resultados por categoría, tipo de renta y rango de precio.")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Búsqueda realizada con éxito", content = @Content(schema = @Schema(implementation = ProductSearchPageDTO.class))), @ApiResponse(responseCode = "400", description = "Página, tamaño o fechas no válidos"), @ApiResponse(responseCode = "404", description = "Categoría no encontrada"), @ApiResponse(responseCode = "500", description = "Error interno del servidor")})
+    @PermitAll
+    @GetMapping(value = "/search", params = "mode=ranked")
+    public ResponseEntity<ProductSearchPageDTO> searchRanked(@RequestParam String searchText,
+                                                             @RequestParam(required = false) Long categoryId,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+                                                             @RequestParam(defaultValue = "0") int page,
+                                                             @RequestParam(defaultValue = "20") int size) throws BadRequestException, NotFoundException {
+        return ResponseEntity.ok(productService.searchRanked(searchText, categoryId, startDate, endDate, page, size, false));
+    }
+
+    /**
+     * Busca productos por relevancia tolerando errores de tipeo, paginado, con las facetas de los resultados.
+     *
+     * @param searchText el texto a buscar
+     * @param categoryId la categoría por la que filtrar, opcional
+     * @param startDate  el inicio del rango en el que el producto debe tener una unidad libre cada día, opcional
+     * @param endDate    el fin del rango (incluido), obligatorio si se indica el inicio
+     * @param page       el número de página, desde 0
+     * @param size       el tamaño de la página
+     * @return la página de productos, del más al menos relevante, con el total de coincidencias y las facetas
+     * @throws BadRequestException si la página, el tamaño o el rango de fechas no son válidos
+     * @throws NotFoundException   si la categoría no existe
+     */
+    @Operation(summary = "Buscar productos con tolerancia a errores de tipeo", description = "Con mode=fuzzy, funciona como mode=ranked, pero las palabras que no aparecen en el catálogo se reemplazan por las que están a una o dos ediciones de distancia.")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Búsqueda realizada con éxito", content = @Content(schema = @Schema(implementation = ProductSearchPageDTO.class))), @ApiResponse(responseCode = "400", description = "Página, tamaño o fechas no válidos"), @ApiResponse(responseCode = "404", description = "Categoría no encontrada"), @ApiResponse(responseCode = "500", description = "Error interno del servidor")})
+    @PermitAll
+    @GetMapping(value = "/search", params = "mode=fuzzy")
+    public ResponseEntity<ProductSearchPageDTO> searchFuzzy(@RequestParam String searchText,
+                                                            @RequestParam(required = false) Long categoryId,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+                                                            @RequestParam(defaultValue = "0") int page,
+                                                            @RequestParam(defaultValue = "20") int size) throws BadRequestException, NotFoundException {
+        return ResponseEntity.ok(productService.searchRanked(searchText, categoryId, startDate, endDate, page, size, true));
     }
 
     @GetMapping("/search/suggestions")
-    public ResponseEntity<List<String>> getSuggestions(@RequestParam String query) {
-        List<String> suggestions = productService.getSuggestions(query);
+    public ResponseEntity<List<String>> getSuggestions(@RequestParam String query,
+                                                       @RequestParam(defaultValue = "10") int limit,
+                                                       @RequestParam(defaultValue = "false") boolean fuzzy) throws BadRequestException {
+        List<String> suggestions = productService.getSuggestions(query, limit, fuzzy);
         return ResponseEntity.ok(suggestions);
     }
 
+    /**
+     * Recupera las unidades libres por día de varios productos entre dos fechas.
+     *
+     * @param ids  los IDs de los productos, hasta 100
+     * @param from el primer día (incluido)
+     * @param to   el último día (incluido)
+     * @return la disponibilidad de cada producto, indexada por ID; los productos que no existen se omiten
+     * @throws BadRequestException si no hay IDs, son más de 100 o el rango de fechas no es válido
+     */
+    @Operation(summary = "Obtener la disponibilidad diaria de varios productos", description = "Devuelve, para cada producto, las unidades libres de cada día del rango (hasta 366 días) como tramos [días, unidades libres], resueltas con una sola consulta.")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Disponibilidad obtenida con éxito"), @ApiResponse(responseCode = "400", description = "IDs o rango de fechas no válidos"), @ApiResponse(responseCode = "500", description = "Error interno del servidor")})
+    @PermitAll
+    @GetMapping("/availability")
+    public ResponseEntity<Map<Long, AvailabilityCalendarDTO>> getAvailabilityCalendars(@RequestParam List<Long> ids,
+                                                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) throws BadRequestException {
+        return ResponseEntity.ok(availabilityService.getAvailabilityCalendars(ids, from, to));
+    }
+
     @GetMapping("/{productId}/availability")
     public ResponseEntity<AvailabilityDTO> getProductAvailability(@PathVariable Long productId) throws NotFoundException {
-        AvailabilityDTO availability = productService.getProductAvailability(productId);
+        AvailabilityDTO availability = availabilityService.getProductAvailability(productId);
         return ResponseEntity.ok(availability);
     }
+
+    /**
+     * Recupera las unidades libres por día de un producto entre dos fechas.
+     *
+     * @param productId el ID del producto
+     * @param from      el primer día (incluido)
+     * @param to        el último día (incluido)
+     * @return las unidades libres por día, codificadas por tramos [días, unidades libres]
+     * @throws BadRequestException si el rango de fechas no es válido o supera un año
+     * @throws NotFoundException   si el producto no existe
+     */
+    @Operation(summary = "Obtener la disponibilidad diaria de un producto", description = "Con from y to, devuelve las unidades libres de cada día del rango (hasta 366 días) como tramos [días, unidades libres], listos para pintar un calendario. Solo se leen los días del rango.")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Disponibilidad obtenida con éxito", content = @Content(schema = @Schema(implementation = AvailabilityCalendarDTO.class))), @ApiResponse(responseCode = "400", description = "Rango de fechas no válido"), @ApiResponse(responseCode = "404", description = "Producto no encontrado"), @ApiResponse(responseCode = "500", description = "Error interno del servidor")})
+    @PermitAll
+    @GetMapping(value = "/{productId}/availability", params = {"from", "to"})
+    public ResponseEntity<AvailabilityCalendarDTO> getAvailabilityCalendar(@PathVariable Long productId,
+                                                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) throws BadRequestException, NotFoundException {
+        return ResponseEntity.ok(availabilityService.getAvailabilityCalendar(productId, from, to));
+    }
+
+    private ProductSort parseSort(String sort) throws BadRequestException {
+        try {
+            return ProductSort.valueOf(sort.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Orden no válido: " + sort);
+        }
+    }
+
+    private ExportFormat parseExportFormat(String format) throws BadRequestException {
+        try {
+            return ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Formato no válido: " + format);
+        }
+    }
 }
@@ -9,17 +9,32 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import proyecto.dh.common.enums.SearchKind;
 import proyecto.dh.common.responses.ResponseDTO;
 import proyecto.dh.common.responses.ResponseHandler;
 import proyecto.dh.exceptions.handler.BadRequestException;
 import proyecto.dh.exceptions.handler.NotFoundException;
+import proyecto.dh.resources.product.dto.ProductCacheStatsDTO;
 import proyecto.dh.resources.product.dto.ProductDTO;
+import proyecto.dh.resources.product.dto.ProductImportResultDTO;
+import proyecto.dh.resources.product.dto.ProductPatchDTO;
+import proyecto.dh.resources.product.dto.ProductPatchResultDTO;
 import proyecto.dh.resources.product.dto.ProductSaveDTO;
 import proyecto.dh.resources.product.dto.ProductUpdateDTO;
+import proyecto.dh.resources.product.dto.SearchAnalyticsDTO;
+import proyecto.dh.resources.product.service.ProductImportService;
+import proyecto.dh.resources.product.service.ProductPatchService;
 import proyecto.dh.resources.product.service.ProductService;
+import proyecto.dh.resources.product.service.SearchAnalyticsService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 
 /**
  * Controlador para gestionar productos.
@@ -33,6 +48,15 @@ public class ProductSecuredController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductPatchService productPatchService;
+
+    @Autowired
+    private SearchAnalyticsService searchAnalyticsService;
+
     /**
      * Crea un nuevo producto en el sistema.
      *
@@ -50,6 +74,38 @@ public class ProductSecuredController {
         return new ResponseEntity<>(createdProduct, HttpStatus.CREATED);
     }
 
+    /**
+     * Importa productos en bloque a partir de una lista JSON.
+     *
+     * @param products los productos a crear
+     * @return el resumen de la importación con los errores por fila y estado HTTP 200 (OK)
+     */
+    @Operation(summary = "Importar productos (JSON)", description = "Esta operación crea productos en bloque. Las filas inválidas se informan sin deshacer el resto de la carga.")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Importación procesada", content = @Content(schema = @Schema(implementation = ProductImportResultDTO.class))), @ApiResponse(responseCode = "500", description = "Error interno del servidor")})
+    @Secured({"ROLE_ADMIN", "ROLE_EDITOR"})
+    @PostMapping(value = "import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ProductImportResultDTO> importProducts(@RequestBody List<ProductSaveDTO> products) {
+        return new ResponseEntity<>(productImportService.importProducts(products), HttpStatus.OK);
+    }
+
+    /**
+     * Importa productos en bloque a partir de un archivo CSV.
+     *
+     * @param file el archivo CSV con cabecera (name, description, stock, price, rentType, categoryId y featureIds opcional)
+     * @return el resumen de la importación con los errores por fila y estado HTTP 200 (OK)
+     * @throws IOException         si no se puede leer el archivo
+     * @throws BadRequestException si el archivo está vacío o le faltan columnas obligatorias
+     */
+    @Operation(summary = "Importar productos (CSV)", description = "Esta operación crea productos en bloque desde un CSV. Las filas inválidas se informan sin deshacer el resto de la carga.")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Importación procesada", content = @Content(schema = @Schema(implementation = ProductImportResultDTO.class))), @ApiResponse(responseCode = "400", description = "Archivo inválido"), @ApiResponse(responseCode = "500", description = "Error interno del servidor")})
+    @Secured({"ROLE_ADMIN", "ROLE_EDITOR"})
+    @PostMapping(value = "import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ProductImportResultDTO> importProductsCsv(@RequestPart("file") MultipartFile file) throws IOException, BadRequestException {
+        try (InputStream input = file.getInputStream()) {
+            return new ResponseEntity<>(productImportService.importCsv(input), HttpStatus.OK);
+        }
+    }
+
     /**
      * Actualiza un producto existente en el sistema.
      *
@@ -68,6 +124,21 @@ public class ProductSecuredController {
         return new ResponseEntity<>(updatedProduct, HttpStatus.OK);
     }
 
+    /**
+     * Actualiza el precio y/o stock de muchos productos en una sola llamada.
+     *
+     * @param patches la lista de cambios; cada uno con el ID y los campos a modificar
+     * @return los IDs actualizados, los inexistentes y los cambios rechazados con estado HTTP 200 (OK)
+     * @throws BadRequestException si la lista está vacía o es demasiado grande
+     */
+    @Operation(summary = "Actualizar precio y stock en lote", description = "Esta operación aplica cambios parciales de precio y stock a muchos productos sin recargar cada producto.")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Cambios procesados", content = @Content(schema = @Schema(implementation = ProductPatchResultDTO.class))), @ApiResponse(responseCode = "400", description = "Entrada inválida"), @ApiResponse(responseCode = "500", description = "Error interno del servidor")})
+    @Secured({"ROLE_ADMIN", "ROLE_EDITOR"})
+    @PatchMapping("batch")
+    public ResponseEntity<ProductPatchResultDTO> patchProducts(@RequestBody List<ProductPatchDTO> patches) throws BadRequestException {
+        return new ResponseEntity<>(productPatchService.patch(patches), HttpStatus.OK);
+    }
+
     /**
      * Elimina un producto del sistema.
      *
@@ -83,4 +154,47 @@ public class ProductSecuredController {
         productService.delete(id);
         return ResponseHandler.generateResponse("Producto eliminado correctamente", HttpStatus.OK, null);
     }
+
+    /**
+     * Recupera las estadísticas de la caché de productos.
+     *
+     * @return aciertos, fallos, desalojos y tamaño de la caché con estado HTTP 200 (OK)
+     */
+    @Operation(summary = "Obtener estadísticas de la caché de productos", description = "Esta operación devuelve los contadores de aciertos, fallos y desalojos de la caché de productos.")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Estadísticas recuperadas con éxito", content = @Content(schema = @Schema(implementation = ProductCacheStatsDTO.class))), @ApiResponse(responseCode = "500", description = "Error interno del servidor")})
+    @Secured({"ROLE_ADMIN"})
+    @GetMapping("cache/stats")
+    public ResponseEntity<ProductCacheStatsDTO> getCacheStats() {
+        return new ResponseEntity<>(productService.getCacheStats(), HttpStatus.OK);
+    }
+
+    /**
+     * Recupera los textos más buscados y los más buscados sin resultados.
+     *
+     * @param days  la cantidad de días hacia atrás a considerar
+     * @param limit la cantidad máxima de textos por lista
+     * @param kind  el tipo de búsqueda, opcional; por defecto, todas menos las sugerencias
+     * @return el reporte de búsquedas con estado HTTP 200 (OK)
+     * @throws BadRequestException si los días, el límite o el tipo no son válidos
+     */
+    @Operation(summary = "Obtener la analítica de búsquedas", description = "Esta operación devuelve los textos más buscados y los más buscados sin resultados en los últimos días.")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Reporte recuperado con éxito", content = @Content(schema = @Schema(implementation = SearchAnalyticsDTO.class))), @ApiResponse(responseCode = "400", description = "Parámetros no válidos"), @ApiResponse(responseCode = "500", description = "Error interno del servidor")})
+    @Secured({"ROLE_ADMIN"})
+    @GetMapping("search/analytics")
+    public ResponseEntity<SearchAnalyticsDTO> getSearchAnalytics(@RequestParam(defaultValue = "7") int days,
+                                                                 @RequestParam(defaultValue = "20") int limit,
+                                                                 @RequestParam(required = false) String kind) throws BadRequestException {
+        return new ResponseEntity<>(searchAnalyticsService.getReport(days, limit, parseSearchKind(kind)), HttpStatus.OK);
+    }
+
+    private SearchKind parseSearchKind(String kind) throws BadRequestException {
+        if (kind == null) {
+            return null;
+        }
+        try {
+            return SearchKind.valueOf(kind.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Tipo de búsqueda no válido: " + kind);
+        }
+    }
 }
@@ -0,0 +1,29 @@
+package proyecto.dh.resources.product.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Unidades libres por día de un producto entre dos fechas, codificadas por tramos: cada elemento de
+ * {@code runs} es {@code [días, unidades libres]} y los tramos se suceden desde {@code from} hasta
+ * {@code to} sin huecos. Un mes sin reservas ocupa un solo tramo.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityCalendarDTO {
+    private Long productId;
+    private LocalDate from;
+    private LocalDate to;
+    private int capacity;
+
+    @Schema(description = "Tramos [días, unidades libres], desde from hasta to", example = "[[3, 2], [4, 0], [24, 2]]")
+    private List<int[]> runs;
+}
@@ -0,0 +1,29 @@
+package proyecto.dh.resources.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductCacheStatsDTO {
+    private CacheStats products;
+    private CacheStats lists;
+    private CacheStats searches;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CacheStats {
+        private long size;
+        private long hitCount;
+        private long missCount;
+        private long evictionCount;
+        private double hitRate;
+
+        public static CacheStats of(com.github.benmanes.caffeine.cache.stats.CacheStats stats, long size) {
+            return new CacheStats(size, stats.hitCount(), stats.missCount(), stats.evictionCount(), stats.hitRate());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package proyecto.dh.resources.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import proyecto.dh.common.enums.RentType;
+
+/**
+ * Vista reducida de un producto para los listados: sólo los datos que muestra la tarjeta.
+ * Se construye directamente desde la consulta, sin cargar entidades.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductCardDTO {
+    private Long id;
+    private String name;
+    private Double price;
+    private RentType rentType;
+    private String categoryName;
+    private String imageUrl;
+}
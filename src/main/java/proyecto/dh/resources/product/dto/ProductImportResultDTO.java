@@ -0,0 +1,27 @@
+package proyecto.dh.resources.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResultDTO {
+    private int total;
+    private int imported;
+    private int failed;
+    private List<RowError> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        // Número de fila de datos (empezando en 1, sin contar la cabecera del CSV)
+        private int row;
+        private String name;
+        private String message;
+    }
+}
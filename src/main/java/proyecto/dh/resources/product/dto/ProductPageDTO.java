@@ -0,0 +1,22 @@
+package proyecto.dh.resources.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de productos obtenida por cursor (keyset).
+ * {@code nextCursor} es nulo cuando no quedan más productos por recorrer.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductPageDTO {
+    private List<ProductDTO> content;
+    private String nextCursor;
+    private int limit;
+}
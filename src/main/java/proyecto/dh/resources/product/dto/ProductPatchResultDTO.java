@@ -0,0 +1,26 @@
+package proyecto.dh.resources.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPatchResultDTO {
+    private List<Long> updated;
+    private List<Long> notFound;
+    private List<Rejected> rejected;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rejected {
+        // Posición del cambio en la lista recibida (empezando en 1), útil cuando falta el ID
+        private int index;
+        private Long id;
+        private String message;
+    }
+}
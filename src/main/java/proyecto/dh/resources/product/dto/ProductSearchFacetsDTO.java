@@ -0,0 +1,33 @@
+package proyecto.dh.resources.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import proyecto.dh.common.enums.PriceRange;
+import proyecto.dh.common.enums.RentType;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cantidad de resultados de una búsqueda por categoría, tipo de renta y rango de precio.
+ * Las categorías se cuentan sin aplicar el filtro de categoría, para poder mostrar las demás opciones;
+ * los tipos de renta y los precios se cuentan sobre los resultados ya filtrados.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchFacetsDTO {
+    private List<CategoryCount> categories;
+    private Map<RentType, Long> rentTypes;
+    private Map<PriceRange, Long> priceRanges;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryCount {
+        private Long id;
+        private String name;
+        private long count;
+    }
+}
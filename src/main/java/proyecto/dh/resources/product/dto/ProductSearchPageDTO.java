@@ -0,0 +1,23 @@
+package proyecto.dh.resources.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de resultados de la búsqueda por relevancia.
+ * {@code totalHits} es la cantidad de productos que coinciden con la búsqueda, en todas las páginas,
+ * y {@code facets} las cuenta por categoría, tipo de renta y rango de precio.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchPageDTO {
+    private List<ProductDTO> content;
+    private int page;
+    private int size;
+    private long totalHits;
+    private ProductSearchFacetsDTO facets;
+}
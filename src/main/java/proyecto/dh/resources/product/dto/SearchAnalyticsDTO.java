@@ -0,0 +1,22 @@
+package proyecto.dh.resources.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Reporte de búsquedas: las más frecuentes y las más frecuentes sin resultados.
+ * {@code pending} son las búsquedas todavía en memoria y {@code dropped} las descartadas
+ * desde el arranque porque el buffer estaba lleno o falló su escritura.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchAnalyticsDTO {
+    private List<SearchQueryStatDTO> topQueries;
+    private List<SearchQueryStatDTO> zeroResultQueries;
+    private long pending;
+    private long dropped;
+}
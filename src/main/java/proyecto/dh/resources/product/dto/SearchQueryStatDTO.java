@@ -0,0 +1,19 @@
+package proyecto.dh.resources.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Agregado de un texto buscado: cuántas veces se buscó, con cuántos resultados en promedio
+ * y cuánto tardó en promedio. Se construye directamente desde la consulta.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchQueryStatDTO {
+    private String query;
+    private Long count;
+    private Double averageResults;
+    private Double averageLatencyMicros;
+}
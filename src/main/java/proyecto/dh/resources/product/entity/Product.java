@@ -17,9 +17,20 @@ import java.util.*;
 @NoArgsConstructor
 @Data
 @Entity
-@Table(name = "products")
+@NamedEntityGraph(name = Product.GRAPH_WITH_CATEGORY, attributeNodes = {
+        @NamedAttributeNode(value = "category", subgraph = "category")
+}, subgraphs = {
+        @NamedSubgraph(name = "category", attributeNodes = @NamedAttributeNode("attachment"))
+})
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_price_id", columnList = "price, id")
+})
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class Product {
+    // Trae la categoría (y su imagen) en el mismo SELECT; las colecciones se cargan por lotes
+    // gracias a hibernate.default_batch_fetch_size, evitando el N+1 al convertir a DTO.
+    public static final String GRAPH_WITH_CATEGORY = "Product.withCategory";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
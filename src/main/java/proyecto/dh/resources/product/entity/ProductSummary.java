@@ -0,0 +1,39 @@
+package proyecto.dh.resources.product.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Modelo de lectura desnormalizado: el ProductDTO público de cada producto ya serializado,
+ * para responder las lecturas sin unir categorías, características, políticas y adjuntos.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "product_summary")
+public class ProductSummary {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    // Versión del formato del JSON; al cambiar el DTO se sube y el arranque regenera las filas viejas
+    @Column(nullable = false)
+    private Integer payloadVersion;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
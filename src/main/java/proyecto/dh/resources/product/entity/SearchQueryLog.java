@@ -0,0 +1,50 @@
+package proyecto.dh.resources.product.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import proyecto.dh.common.enums.SearchKind;
+
+import java.time.LocalDateTime;
+
+/**
+ * Una búsqueda registrada para la analítica. Las filas se insertan por lotes con JDBC desde
+ * SearchAnalytics; la entidad se usa para los reportes.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "search_queries")
+public class SearchQueryLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String queryText;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SearchKind kind;
+
+    @Column(nullable = false)
+    private Integer resultCount;
+
+    @Column(nullable = false)
+    private Long latencyMicros;
+
+    @Column(nullable = false)
+    private LocalDateTime searchedAt;
+}
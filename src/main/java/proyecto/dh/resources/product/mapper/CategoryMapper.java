@@ -0,0 +1,112 @@
+package proyecto.dh.resources.product.mapper;
+
+import org.springframework.stereotype.Component;
+import proyecto.dh.resources.attachment.mapper.AttachmentMapper;
+import proyecto.dh.resources.product.dto.*;
+import proyecto.dh.resources.product.entity.CategoryFeature;
+import proyecto.dh.resources.product.entity.CategoryPolicy;
+import proyecto.dh.resources.product.entity.ProductCategory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Conversión entre categorías (con sus características y políticas) y sus DTOs.
+ * Los métodos de actualización sólo copian los valores no nulos, igual que la
+ * configuración anterior de ModelMapper.
+ */
+@Component
+public class CategoryMapper {
+
+    private final AttachmentMapper attachmentMapper;
+
+    public CategoryMapper(AttachmentMapper attachmentMapper) {
+        this.attachmentMapper = attachmentMapper;
+    }
+
+    public CategoryDTO toDTO(ProductCategory category) {
+        if (category == null) {
+            return null;
+        }
+        CategoryDTO categoryDTO = new CategoryDTO();
+        categoryDTO.setId(category.getId());
+        categoryDTO.setName(category.getName());
+        categoryDTO.setDescription(category.getDescription());
+        categoryDTO.setSlug(category.getSlug());
+        categoryDTO.setAttachment(attachmentMapper.toDTO(category.getAttachment()));
+        if (category.getCategoryFeatures() != null) {
+            categoryDTO.setFeatures(toFeatureDTOs(category.getCategoryFeatures()));
+        }
+        if (category.getCategoryPolicies() != null) {
+            categoryDTO.setPolicies(toPolicyDTOs(category.getCategoryPolicies()));
+        }
+        return categoryDTO;
+    }
+
+    public ProductCategory toEntity(CategorySaveDTO categorySaveDTO) {
+        ProductCategory category = new ProductCategory();
+        updateEntity(categorySaveDTO, category);
+        return category;
+    }
+
+    public void updateEntity(CategorySaveDTO categorySaveDTO, ProductCategory category) {
+        if (categorySaveDTO.getName() != null) {
+            category.setName(categorySaveDTO.getName());
+        }
+        if (categorySaveDTO.getDescription() != null) {
+            category.setDescription(categorySaveDTO.getDescription());
+        }
+        if (categorySaveDTO.getSlug() != null) {
+            category.setSlug(categorySaveDTO.getSlug());
+        }
+    }
+
+    public CategoryFeatureDTO toFeatureDTO(CategoryFeature feature) {
+        CategoryFeatureDTO featureDTO = new CategoryFeatureDTO();
+        featureDTO.setId(feature.getId());
+        featureDTO.setName(feature.getName());
+        featureDTO.setDescription(feature.getDescription());
+        featureDTO.setIcon(feature.getIcon());
+        return featureDTO;
+    }
+
+    public List<CategoryFeatureDTO> toFeatureDTOs(Collection<CategoryFeature> features) {
+        List<CategoryFeatureDTO> featureDTOs = new ArrayList<>(features.size());
+        for (CategoryFeature feature : features) {
+            featureDTOs.add(toFeatureDTO(feature));
+        }
+        return featureDTOs;
+    }
+
+    public CategoryFeature toFeatureEntity(CategoryFeatureSaveDTO featureSaveDTO) {
+        CategoryFeature feature = new CategoryFeature();
+        feature.setName(featureSaveDTO.getName());
+        feature.setDescription(featureSaveDTO.getDescription());
+        feature.setIcon(featureSaveDTO.getIcon());
+        return feature;
+    }
+
+    public CategoryPolicyDTO toPolicyDTO(CategoryPolicy policy) {
+        CategoryPolicyDTO policyDTO = new CategoryPolicyDTO();
+        policyDTO.setId(policy.getId());
+        policyDTO.setTitle(policy.getTitle());
+        policyDTO.setDescription(policy.getDescription());
+        return policyDTO;
+    }
+
+    public List<CategoryPolicyDTO> toPolicyDTOs(Collection<CategoryPolicy> policies) {
+        List<CategoryPolicyDTO> policyDTOs = new ArrayList<>(policies.size());
+        for (CategoryPolicy policy : policies) {
+            policyDTOs.add(toPolicyDTO(policy));
+        }
+        return policyDTOs;
+    }
+
+    public CategoryPolicy toPolicyEntity(CategoryPolicySaveDTO policySaveDTO) {
+        CategoryPolicy policy = new CategoryPolicy();
+        policy.setTitle(policySaveDTO.getTitle());
+        policy.setDescription(policySaveDTO.getDescription());
+        return policy;
+    }
+}
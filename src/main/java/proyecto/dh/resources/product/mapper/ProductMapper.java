@@ -0,0 +1,86 @@
+package proyecto.dh.resources.product.mapper;
+
+import org.springframework.stereotype.Component;
+import proyecto.dh.resources.attachment.dto.AttachmentDTO;
+import proyecto.dh.resources.attachment.entity.Attachment;
+import proyecto.dh.resources.attachment.mapper.AttachmentMapper;
+import proyecto.dh.resources.product.dto.ProductDTO;
+import proyecto.dh.resources.product.dto.ProductSaveDTO;
+import proyecto.dh.resources.product.dto.ProductUpdateDTO;
+import proyecto.dh.resources.product.entity.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conversión entre {@link Product} y sus DTOs.
+ * El DTO incluye la categoría con sus características y políticas, los adjuntos y las características del producto.
+ */
+@Component
+public class ProductMapper {
+
+    private final CategoryMapper categoryMapper;
+    private final AttachmentMapper attachmentMapper;
+
+    public ProductMapper(CategoryMapper categoryMapper, AttachmentMapper attachmentMapper) {
+        this.categoryMapper = categoryMapper;
+        this.attachmentMapper = attachmentMapper;
+    }
+
+    public ProductDTO toDTO(Product product) {
+        ProductDTO productDTO = new ProductDTO();
+        productDTO.setId(product.getId());
+        productDTO.setName(product.getName());
+        productDTO.setDescription(product.getDescription());
+        if (product.getStock() != null) {
+            productDTO.setStock(product.getStock());
+        }
+        if (product.getPrice() != null) {
+            productDTO.setPrice(product.getPrice());
+        }
+        productDTO.setRentType(product.getRentType());
+        productDTO.setCategory(categoryMapper.toDTO(product.getCategory()));
+
+        if (product.getAttachments() != null) {
+            List<AttachmentDTO> attachments = new ArrayList<>(product.getAttachments().size());
+            for (Attachment attachment : product.getAttachments()) {
+                attachments.add(attachmentMapper.toDTO(attachment));
+            }
+            productDTO.setAttachments(attachments);
+        }
+
+        if (product.getFeatures() != null) {
+            productDTO.setFeatures(categoryMapper.toFeatureDTOs(product.getFeatures()));
+        }
+
+        return productDTO;
+    }
+
+    public Product toEntity(ProductSaveDTO productSaveDTO) {
+        Product product = new Product();
+        product.setName(productSaveDTO.getName());
+        product.setDescription(productSaveDTO.getDescription());
+        product.setStock(productSaveDTO.getStock());
+        product.setPrice(productSaveDTO.getPrice());
+        product.setRentType(productSaveDTO.getRentType());
+        return product;
+    }
+
+    public void updateEntity(ProductUpdateDTO productUpdateDTO, Product product) {
+        if (productUpdateDTO.getName() != null) {
+            product.setName(productUpdateDTO.getName());
+        }
+        if (productUpdateDTO.getDescription() != null) {
+            product.setDescription(productUpdateDTO.getDescription());
+        }
+        if (productUpdateDTO.getStock() != null) {
+            product.setStock(productUpdateDTO.getStock());
+        }
+        if (productUpdateDTO.getPrice() != null) {
+            product.setPrice(productUpdateDTO.getPrice());
+        }
+        if (productUpdateDTO.getRentType() != null) {
+            product.setRentType(productUpdateDTO.getRentType());
+        }
+    }
+}
@@ -1,8 +1,17 @@
 package proyecto.dh.resources.product.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import proyecto.dh.resources.product.entity.CategoryFeature;
+
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface CategoryFeatureRepository extends JpaRepository<CategoryFeature, Long> {
+
+    @Query("SELECT f.id FROM CategoryFeature f WHERE f.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -6,6 +6,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import proyecto.dh.resources.product.entity.ProductCategory;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,4 +18,7 @@ public interface ProductCategoryRepository extends JpaRepository<ProductCategory
 
     @Query("SELECT COUNT(p) > 0 FROM Product p WHERE p.category.id = :categoryId")
     boolean existsProductsByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("SELECT c.id FROM ProductCategory c WHERE c.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -1,16 +1,88 @@
 package proyecto.dh.resources.product.repository;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import proyecto.dh.resources.product.dto.ProductCardDTO;
 import proyecto.dh.resources.product.entity.Product;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     Optional<Product> findByName(String name);
     boolean existsByName(String name);
+
+    @Override
+    @EntityGraph(Product.GRAPH_WITH_CATEGORY)
+    List<Product> findAll();
+
+    @EntityGraph(Product.GRAPH_WITH_CATEGORY)
+    Optional<Product> findDetailById(Long id);
+
+    // Paginación por cursor (keyset): el Pageable sólo limita la cantidad de filas, nunca usa OFFSET.
+    @EntityGraph(Product.GRAPH_WITH_CATEGORY)
+    List<Product> findAllByOrderByIdAsc(Pageable pageable);
+
+    @EntityGraph(Product.GRAPH_WITH_CATEGORY)
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @EntityGraph(Product.GRAPH_WITH_CATEGORY)
+    List<Product> findAllByOrderByNameAsc(Pageable pageable);
+
+    @EntityGraph(Product.GRAPH_WITH_CATEGORY)
+    List<Product> findByNameGreaterThanOrderByNameAsc(String name, Pageable pageable);
+
+    @EntityGraph(Product.GRAPH_WITH_CATEGORY)
+    List<Product> findAllByOrderByPriceAscIdAsc(Pageable pageable);
+
+    @EntityGraph(Product.GRAPH_WITH_CATEGORY)
+    @Query("SELECT p FROM Product p WHERE p.price >= :price AND (p.price > :price OR p.id > :id) ORDER BY p.price ASC, p.id ASC")
+    List<Product> findByPriceAfter(@Param("price") Double price, @Param("id") Long id, Pageable pageable);
+
+    // Tarjetas de listado: una sola consulta escalar; la imagen es el primer adjunto (menor id) del producto
+    @Query("SELECT new proyecto.dh.resources.product.dto.ProductCardDTO(p.id, p.name, p.price, p.rentType, c.name, " +
+            "(SELECT a.url FROM Attachment a WHERE a.id = (SELECT MIN(a2.id) FROM Attachment a2 WHERE a2.product = p))) " +
+            "FROM Product p JOIN p.category c WHERE p.id > :afterId ORDER BY p.id ASC")
+    List<ProductCardDTO> findCardsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Resúmenes: carga por lotes con la categoría y resolución de los productos afectados por una categoría
+    @EntityGraph(Product.GRAPH_WITH_CATEGORY)
+    List<Product> findByIdIn(Collection<Long> ids);
+
+    @Query("SELECT p.id FROM Product p ORDER BY p.id")
+    List<Long> findAllIds();
+
+    @Query("SELECT p.id FROM Product p WHERE p.category.id = :categoryId")
+    List<Long> findIdsByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("SELECT DISTINCT p.id FROM Product p JOIN p.features f WHERE f.id IN :featureIds")
+    List<Long> findIdsByFeatureIds(@Param("featureIds") Collection<Long> featureIds);
+
+    // Disponibilidad por lotes: solo el stock de cada producto, sin cargar las entidades
+    @Query("SELECT p.id, p.stock FROM Product p WHERE p.id IN :ids")
+    List<Object[]> findStocksByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Importación: resolución por conjuntos de nombres en una sola consulta
+    @Query("SELECT p.name FROM Product p WHERE p.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+
+    @Query("SELECT p.id, p.name FROM Product p WHERE p.name IN :names")
+    List<Object[]> findIdsByNames(@Param("names") Collection<String> names);
+
+    // Exportación: cursor de solo lectura con fetch size para no materializar todo el catálogo
+    @EntityGraph(Product.GRAPH_WITH_CATEGORY)
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    Stream<Product> streamAllByOrderByIdAsc();
 }
@@ -2,130 +2,141 @@ package proyecto.dh.resources.product.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
-import jakarta.persistence.criteria.*;
-import org.modelmapper.ModelMapper;
+import jakarta.persistence.Query;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import proyecto.dh.common.utils.TextFolder;
 import proyecto.dh.exceptions.handler.NotFoundException;
 import proyecto.dh.resources.product.dto.ProductDTO;
 import proyecto.dh.resources.product.entity.Product;
-import proyecto.dh.resources.product.entity.ProductCategory;
+import proyecto.dh.resources.product.mapper.ProductMapper;
 
-import java.text.Normalizer;
+import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
-
+import java.util.regex.Pattern;
+
+/**
+ * Búsqueda por subcadena en la base de datos.
+ * Las expresiones f_unaccent(lower(...)) coinciden con los índices de trigramas de
+ * V24__SearchTrigramIndexes.sql, y cada columna va en su propia rama del UNION para que
+ * cada una use su índice (un OR entre tablas unidas obligaría a recorrer products completa).
+ */
 @Repository
 public class ProductSearchRepository {
 
+    private static final int CHUNK_SIZE = 500;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    static final String NAME_MATCH = "SELECT p.id FROM products p WHERE f_unaccent(lower(p.name)) LIKE :pattern";
+    static final String DESCRIPTION_MATCH = "SELECT p.id FROM products p WHERE f_unaccent(lower(p.description)) LIKE :pattern";
+    static final String CATEGORY_MATCH = "SELECT p.id FROM products p JOIN categories c ON c.id = p.category_id WHERE f_unaccent(lower(c.name)) LIKE :pattern";
+
+    // Descarta los productos sin unidades libres algún día del rango (stock agotado por las reservas de ese día);
+    // recorre solo los días del rango con la clave primaria de product_daily_occupancy
+    static final String AVAILABILITY_FILTER = " AND p.stock > 0 AND NOT EXISTS (SELECT 1 FROM product_daily_occupancy o " +
+            "WHERE o.product_id = p.id AND o.reserved_date BETWEEN :startDate AND :endDate AND o.units >= p.stock)";
+
+    static final String SUGGESTIONS_SQL =
+            "SELECT p.name, p.description, c.name FROM products p LEFT JOIN categories c ON c.id = p.category_id " +
+            "WHERE p.id IN (" + NAME_MATCH + " UNION " + DESCRIPTION_MATCH + " UNION " + CATEGORY_MATCH + ")";
+
     @PersistenceContext
     private EntityManager entityManager;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private ProductMapper productMapper;
+
+    @Autowired
+    private ProductRepository productRepository;
 
     @Autowired
     private ProductCategoryRepository productCategoryRepository;
 
-    public List<ProductDTO> searchProducts(String searchText, Long categoryId) throws NotFoundException {
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Product> query = cb.createQuery(Product.class);
-        Root<Product> product = query.from(Product.class);
-        Join<Product, ProductCategory> category = product.join("category", JoinType.LEFT);
-
-        List<Predicate> predicates = new ArrayList<>();
-
-        if (searchText != null && !searchText.isEmpty()) {
-            String normalizedSearchText = Normalizer.normalize(searchText, Normalizer.Form.NFD)
-                    .replaceAll("\\p{InCombiningDiacriticalMarks}+", "")
-                    .replaceAll("\\s", "");
-
-            Predicate namePredicate = cb.like(
-                    cb.function("unaccent", String.class, cb.lower(product.get("name"))),
-                    "%" + normalizedSearchText.toLowerCase() + "%"
-            );
-            Predicate descriptionPredicate = cb.like(
-                    cb.function("unaccent", String.class, cb.lower(product.get("description"))),
-                    "%" + normalizedSearchText.toLowerCase() + "%"
-            );
-            Predicate categoryNamePredicate = cb.like(
-                    cb.function("unaccent", String.class, cb.lower(category.get("name"))),
-                    "%" + normalizedSearchText.toLowerCase() + "%"
-            );
-
-            predicates.add(cb.or(namePredicate, descriptionPredicate, categoryNamePredicate));
+    /**
+     * Busca productos por subcadena y, si se indica un rango de fechas, descarta en la misma consulta
+     * los que no tienen ninguna unidad libre algún día del rango.
+     *
+     * @param startDate Inicio del rango, o nulo para no filtrar por disponibilidad.
+     * @param endDate   Fin del rango (incluido), o nulo para no filtrar por disponibilidad.
+     */
+    public List<ProductDTO> searchProducts(String searchText, Long categoryId, LocalDate startDate, LocalDate endDate) throws NotFoundException {
+        if (categoryId != null && !productCategoryRepository.existsById(categoryId)) {
+            throw new NotFoundException("Categoría no encontrada");
         }
 
-        if (categoryId != null) {
-            if (!productCategoryRepository.existsById(categoryId)) {
-                throw new NotFoundException("Categoría no encontrada");
+        boolean byAvailability = startDate != null && endDate != null;
+        List<Long> ids;
+        String normalizedSearchText = searchText == null ? "" : TextFolder.foldCompact(searchText);
+        if (normalizedSearchText.isEmpty() && !byAvailability) {
+            ids = categoryId == null ? productRepository.findAllIds() : productRepository.findIdsByCategoryId(categoryId);
+        } else {
+            String sql = normalizedSearchText.isEmpty()
+                    ? allSql(categoryId != null, true)
+                    : searchSql(categoryId != null, byAvailability);
+            Query query = entityManager.createNativeQuery(sql, Long.class);
+            if (!normalizedSearchText.isEmpty()) {
+                query.setParameter("pattern", "%" + normalizedSearchText + "%");
+            }
+            if (categoryId != null) {
+                query.setParameter("categoryId", categoryId);
             }
-            Predicate categoryPredicate = cb.equal(
-                    product.get("category").get("id"),
-                    categoryId
-            );
-            predicates.add(categoryPredicate);
+            if (byAvailability) {
+                query.setParameter("startDate", startDate).setParameter("endDate", endDate);
+            }
+            @SuppressWarnings("unchecked")
+            List<Long> matches = query.getResultList();
+            ids = matches;
         }
 
-        query.where(cb.and(predicates.toArray(new Predicate[0])));
-
-        List<Product> results = entityManager.createQuery(query).getResultList();
-        return results.stream()
-                .map(productEntity -> modelMapper.map(productEntity, ProductDTO.class))
-                .collect(Collectors.toList());
+        List<ProductDTO> results = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            for (Product product : productRepository.findByIdIn(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())))) {
+                results.add(productMapper.toDTO(product));
+            }
+        }
+        results.sort(Comparator.comparing(ProductDTO::getId));
+        return results;
     }
 
     public List<String> findSuggestionsByPartialName(String partialName) {
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
-        Root<Product> product = query.from(Product.class);
-        Join<Product, ProductCategory> category = product.join("category", JoinType.LEFT);
-
-        String normalizedPartialName = Normalizer.normalize(partialName, Normalizer.Form.NFD)
-                .replaceAll("\\p{InCombiningDiacriticalMarks}+", "")
-                .replaceAll("\\s", "");
-
-        Predicate namePredicate = cb.like(
-                cb.function("unaccent", String.class, cb.lower(product.get("name"))),
-                "%" + normalizedPartialName.toLowerCase() + "%"
-        );
-        Predicate descriptionPredicate = cb.like(
-                cb.function("unaccent", String.class, cb.lower(product.get("description"))),
-                "%" + normalizedPartialName.toLowerCase() + "%"
-        );
-        Predicate categoryNamePredicate = cb.like(
-                cb.function("unaccent", String.class, cb.lower(category.get("name"))),
-                "%" + normalizedPartialName.toLowerCase() + "%"
-        );
-
-        query.multiselect(
-                product.get("name"),
-                product.get("description"),
-                category.get("name")
-        ).where(cb.or(namePredicate, descriptionPredicate, categoryNamePredicate));
-
-        List<Object[]> results = entityManager.createQuery(query).getResultList();
-
-        Set<String> suggestions = new HashSet<>();
+        String normalizedPartialName = TextFolder.foldCompact(partialName);
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> results = entityManager.createNativeQuery(SUGGESTIONS_SQL)
+                .setParameter("pattern", "%" + normalizedPartialName + "%")
+                .getResultList();
+
+        // Una sugerencia por palabra plegada, con la primera forma en que aparece en el catálogo
+        Map<String, String> suggestions = new LinkedHashMap<>();
         for (Object[] result : results) {
-            suggestions.addAll(extractWords((String) result[0], normalizedPartialName));
-            suggestions.addAll(extractWords((String) result[1], normalizedPartialName));
-            suggestions.addAll(extractWords((String) result[2], normalizedPartialName));
+            extractWords((String) result[0], normalizedPartialName, suggestions);
+            extractWords((String) result[1], normalizedPartialName, suggestions);
+            extractWords((String) result[2], normalizedPartialName, suggestions);
         }
 
-        return new ArrayList<>(suggestions);
+        return new ArrayList<>(suggestions.values());
+    }
+
+    static String searchSql(boolean byCategory, boolean byAvailability) {
+        String filters = (byCategory ? " AND p.category_id = :categoryId" : "") + (byAvailability ? AVAILABILITY_FILTER : "");
+        return NAME_MATCH + filters + " UNION " + DESCRIPTION_MATCH + filters + " UNION " + CATEGORY_MATCH + filters;
+    }
+
+    static String allSql(boolean byCategory, boolean byAvailability) {
+        return "SELECT p.id FROM products p WHERE TRUE" + (byCategory ? " AND p.category_id = :categoryId" : "")
+                + (byAvailability ? AVAILABILITY_FILTER : "");
     }
 
-    private Set<String> extractWords(String text, String normalizedPartialName) {
+    private void extractWords(String text, String normalizedPartialName, Map<String, String> suggestions) {
         if (text == null || text.isEmpty()) {
-            return Collections.emptySet();
+            return;
         }
 
-        return Arrays.stream(text.split("\\s+"))
-                .map(word -> Normalizer.normalize(word, Normalizer.Form.NFD)
-                        .replaceAll("\\p{InCombiningDiacriticalMarks}+", "")
-                        .replaceAll("\\s", ""))
-                .filter(word -> word.toLowerCase().contains(normalizedPartialName.toLowerCase()))
-                .collect(Collectors.toSet());
+        for (String word : WHITESPACE.split(text)) {
+            String folded = TextFolder.fold(word);
+            if (folded.contains(normalizedPartialName)) {
+                suggestions.putIfAbsent(folded, word);
+            }
+        }
     }
 }
@@ -0,0 +1,31 @@
+package proyecto.dh.resources.product.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import proyecto.dh.resources.product.entity.ProductSummary;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProductSummaryRepository extends JpaRepository<ProductSummary, Long> {
+
+    @Query("SELECT s.payload FROM ProductSummary s WHERE s.productId = :productId")
+    Optional<String> findPayloadById(@Param("productId") Long productId);
+
+    @Query("SELECT s.payload FROM ProductSummary s ORDER BY s.productId ASC")
+    List<String> findAllPayloads();
+
+    @Modifying
+    @Query("DELETE FROM ProductSummary s WHERE s.productId IN :productIds")
+    void deleteByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    // Productos sin resumen o con un resumen generado con otro formato
+    @Query("SELECT p.id FROM Product p WHERE NOT EXISTS " +
+            "(SELECT 1 FROM ProductSummary s WHERE s.productId = p.id AND s.payloadVersion = :payloadVersion) ORDER BY p.id")
+    List<Long> findStaleProductIds(@Param("payloadVersion") Integer payloadVersion);
+}
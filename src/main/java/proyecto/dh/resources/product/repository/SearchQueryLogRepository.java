@@ -0,0 +1,28 @@
+package proyecto.dh.resources.product.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import proyecto.dh.common.enums.SearchKind;
+import proyecto.dh.resources.product.dto.SearchQueryStatDTO;
+import proyecto.dh.resources.product.entity.SearchQueryLog;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SearchQueryLogRepository extends JpaRepository<SearchQueryLog, Long> {
+
+    @Query("SELECT new proyecto.dh.resources.product.dto.SearchQueryStatDTO(s.queryText, COUNT(s), AVG(s.resultCount), AVG(s.latencyMicros)) " +
+            "FROM SearchQueryLog s WHERE s.searchedAt >= :since AND s.kind IN :kinds " +
+            "GROUP BY s.queryText ORDER BY COUNT(s) DESC, s.queryText ASC")
+    List<SearchQueryStatDTO> findTopQueries(@Param("since") LocalDateTime since, @Param("kinds") Collection<SearchKind> kinds, Pageable pageable);
+
+    @Query("SELECT new proyecto.dh.resources.product.dto.SearchQueryStatDTO(s.queryText, COUNT(s), AVG(s.resultCount), AVG(s.latencyMicros)) " +
+            "FROM SearchQueryLog s WHERE s.searchedAt >= :since AND s.kind IN :kinds AND s.resultCount = 0 " +
+            "GROUP BY s.queryText ORDER BY COUNT(s) DESC, s.queryText ASC")
+    List<SearchQueryStatDTO> findTopZeroResultQueries(@Param("since") LocalDateTime since, @Param("kinds") Collection<SearchKind> kinds, Pageable pageable);
+}
@@ -0,0 +1,60 @@
+package proyecto.dh.resources.product.search;
+
+import proyecto.dh.common.enums.PriceRange;
+import proyecto.dh.common.enums.RentType;
+import proyecto.dh.resources.product.dto.ProductSearchFacetsDTO;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acumula las facetas de una búsqueda mientras se recorren los resultados, sin consultas extra.
+ */
+public class FacetCounter {
+
+    private final Map<Long, ProductSearchFacetsDTO.CategoryCount> categories = new HashMap<>();
+    private final long[] rentTypes = new long[RentType.values().length];
+    private final long[] priceRanges = new long[PriceRange.values().length];
+
+    /**
+     * Cuenta un resultado en su categoría. Se llama antes de aplicar el filtro de categoría.
+     */
+    public void countCategory(Long categoryId, String categoryName) {
+        if (categoryId == null) {
+            return;
+        }
+        ProductSearchFacetsDTO.CategoryCount count = categories.computeIfAbsent(categoryId,
+                id -> new ProductSearchFacetsDTO.CategoryCount(id, categoryName, 0));
+        count.setCount(count.getCount() + 1);
+    }
+
+    /**
+     * Cuenta un resultado que pasó el filtro de categoría en su tipo de renta y su rango de precio.
+     */
+    public void countFiltered(RentType rentType, double price) {
+        if (rentType != null) {
+            rentTypes[rentType.ordinal()]++;
+        }
+        priceRanges[PriceRange.of(price).ordinal()]++;
+    }
+
+    public ProductSearchFacetsDTO toDTO() {
+        List<ProductSearchFacetsDTO.CategoryCount> categoryCounts = new ArrayList<>(categories.values());
+        categoryCounts.sort(Comparator.comparingLong(ProductSearchFacetsDTO.CategoryCount::getCount).reversed()
+                .thenComparing(ProductSearchFacetsDTO.CategoryCount::getId));
+
+        Map<RentType, Long> rentTypeCounts = new EnumMap<>(RentType.class);
+        for (RentType rentType : RentType.values()) {
+            rentTypeCounts.put(rentType, rentTypes[rentType.ordinal()]);
+        }
+        Map<PriceRange, Long> priceRangeCounts = new EnumMap<>(PriceRange.class);
+        for (PriceRange priceRange : PriceRange.values()) {
+            priceRangeCounts.put(priceRange, priceRanges[priceRange.ordinal()]);
+        }
+        return new ProductSearchFacetsDTO(categoryCounts, rentTypeCounts, priceRangeCounts);
+    }
+}
@@ -0,0 +1,156 @@
+package proyecto.dh.resources.product.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Diccionario de palabras del catálogo para encontrar las que están a pocas ediciones de un texto mal escrito.
+ * Los candidatos salen de los trigramas compartidos (con un marcador de inicio y fin de palabra) y solo
+ * esos se verifican con la distancia de Levenshtein acotada, así que nunca se recorre el diccionario ni
+ * los productos completos.
+ * <p>
+ * Igual que {@link SuggestionTrie}, se modifica con el bloqueo de escritura de {@link ProductSearchIndex}.
+ */
+class FuzzyTermIndex {
+
+    private static final char BOUNDARY = '$';
+
+    private final Map<String, Integer> counts = new HashMap<>();
+    private final Map<String, Set<String>> grams = new HashMap<>();
+    // Menor distancia primero; a igual distancia, la palabra en más productos y luego el orden alfabético
+    private final Comparator<Match> ranking = Comparator.comparingInt(Match::distance)
+            .thenComparing(Comparator.comparingInt(Match::count).reversed())
+            .thenComparing(Match::term);
+
+    void clear() {
+        counts.clear();
+        grams.clear();
+    }
+
+    /**
+     * Suma (o resta) productos a la frecuencia de una palabra.
+     */
+    void adjust(String term, int delta) {
+        int count = counts.getOrDefault(term, 0) + delta;
+        if (count > 0) {
+            if (counts.put(term, count) == null) {
+                for (String gram : grams(term, false)) {
+                    grams.computeIfAbsent(gram, key -> new HashSet<>()).add(term);
+                }
+            }
+        } else if (counts.remove(term) != null) {
+            for (String gram : grams(term, false)) {
+                Set<String> terms = grams.get(gram);
+                terms.remove(term);
+                if (terms.isEmpty()) {
+                    grams.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ediciones toleradas según el largo del texto: ninguna hasta 2 caracteres, una hasta 5 y dos a partir de ahí.
+     */
+    static int maxDistance(int length) {
+        return length <= 2 ? 0 : length <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Busca las palabras a distancia acotada del texto.
+     *
+     * @param query  Texto ya plegado.
+     * @param prefix Si es verdadero, compara el texto con el comienzo de cada palabra (para el autocompletado).
+     * @param limit  Cantidad máxima de palabras a devolver.
+     * @return Palabras encontradas, de la más cercana a la más lejana.
+     */
+    List<Match> matches(String query, boolean prefix, int limit) {
+        int maxDistance = maxDistance(query.length());
+        if (maxDistance == 0) {
+            return Collections.emptyList();
+        }
+
+        Set<String> queryGrams = grams(query, prefix);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : queryGrams) {
+            Set<String> terms = grams.get(gram);
+            if (terms != null) {
+                for (String term : terms) {
+                    shared.merge(term, 1, Integer::sum);
+                }
+            }
+        }
+
+        // Cada edición rompe a lo sumo tres trigramas
+        int minShared = Math.max(1, queryGrams.size() - 3 * maxDistance);
+        List<Match> matches = new ArrayList<>();
+        for (Map.Entry<String, Integer> candidate : shared.entrySet()) {
+            String term = candidate.getKey();
+            if (candidate.getValue() < minShared
+                    || term.length() < query.length() - maxDistance
+                    || (!prefix && term.length() > query.length() + maxDistance)) {
+                continue;
+            }
+            int distance = distance(query, term, maxDistance, prefix);
+            if (distance <= maxDistance) {
+                matches.add(new Match(term, distance, counts.get(term)));
+            }
+        }
+        matches.sort(ranking);
+        return matches.subList(0, Math.min(limit, matches.size()));
+    }
+
+    /**
+     * Distancia de Levenshtein entre el texto y la palabra (o el comienzo de la palabra que más se le parezca).
+     * Deja de calcular en cuanto supera el máximo y en ese caso devuelve {@code maxDistance + 1}.
+     */
+    static int distance(String query, String term, int maxDistance, boolean prefix) {
+        int[] previous = new int[term.length() + 1];
+        int[] current = new int[term.length() + 1];
+        for (int j = 0; j <= term.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= query.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            char c = query.charAt(i - 1);
+            for (int j = 1; j <= term.length(); j++) {
+                int substitution = previous[j - 1] + (c == term.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxDistance) {
+                return maxDistance + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        int distance = previous[term.length()];
+        if (prefix) {
+            for (int value : previous) {
+                distance = Math.min(distance, value);
+            }
+        }
+        return Math.min(distance, maxDistance + 1);
+    }
+
+    // Con prefix no se marca el final: el texto puede seguir en la palabra completa
+    private static Set<String> grams(String word, boolean prefix) {
+        String padded = BOUNDARY + word + (prefix ? "" : String.valueOf(BOUNDARY));
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    record Match(String term, int distance, int count) {
+    }
+}
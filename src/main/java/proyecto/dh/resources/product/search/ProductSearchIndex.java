@@ -0,0 +1,387 @@
+package proyecto.dh.resources.product.search;
+
+import org.springframework.stereotype.Component;
+import proyecto.dh.common.enums.RentType;
+import proyecto.dh.common.utils.AfterCommit;
+import proyecto.dh.common.utils.TextFolder;
+import proyecto.dh.resources.product.dto.ProductDTO;
+import proyecto.dh.resources.product.dto.ProductSearchFacetsDTO;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria para la búsqueda de productos.
+ * Guarda los tokens (separados por espacios, en minúsculas y sin acentos) del nombre, la descripción
+ * y el nombre de la categoría de cada producto, y los trigramas de cada token. Mantiene la regla de
+ * la búsqueda en base de datos: un producto coincide si algún campo contiene el texto buscado, sin
+ * acentos ni espacios. Como el texto buscado no tiene espacios, toda coincidencia cae dentro de un
+ * único token, así que basta con buscar en el diccionario de tokens.
+ * Además alimenta un trie con las palabras de esos campos para el autocompletado, un índice de
+ * términos ponderados para la búsqueda por relevancia y un diccionario de trigramas de palabras
+ * para tolerar errores de tipeo.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAX_CORRECTIONS = 10;
+    // Se aplica al texto sin plegar: las marcas combinantes son parte de la palabra
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{M}\\p{Nd}]+");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedProduct> products = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+    private final SuggestionTrie suggestions = new SuggestionTrie();
+    private final RankedTermIndex rankedTerms = new RankedTermIndex();
+    private final FuzzyTermIndex fuzzyTerms = new FuzzyTermIndex();
+
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Indexa de nuevo todo el catálogo. Las altas y bajas confirmadas durante la carga quedan esperando
+     * el bloqueo de escritura y se aplican sobre el índice recién cargado.
+     *
+     * @param loader Proveedor de todos los productos del catálogo.
+     */
+    public void rebuild(Supplier<Collection<ProductDTO>> loader) {
+        lock.writeLock().lock();
+        try {
+            // Mientras no esté listo, las búsquedas van al repositorio
+            ready = false;
+            products.clear();
+            postings.clear();
+            trigrams.clear();
+            suggestions.clear();
+            rankedTerms.clear();
+            fuzzyTerms.clear();
+            for (ProductDTO product : loader.get()) {
+                add(product);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexa (o reindexa) un producto cuando se confirme la transacción actual.
+     */
+    public void indexAfterCommit(ProductDTO product) {
+        AfterCommit.run(lock.writeLock(), () -> {
+            remove(product.getId());
+            add(product);
+        });
+    }
+
+    /**
+     * Quita un producto del índice cuando se confirme la transacción actual.
+     */
+    public void removeAfterCommit(Long productId) {
+        AfterCommit.run(lock.writeLock(), () -> remove(productId));
+    }
+
+    /**
+     * Busca los productos cuyo nombre, descripción o categoría contienen el texto.
+     *
+     * @param searchText Texto buscado; vacío o nulo devuelve todos los productos.
+     * @param categoryId Categoría opcional por la que filtrar.
+     * @return IDs de los productos encontrados, ordenados.
+     */
+    public List<Long> search(String searchText, Long categoryId) {
+        String query = searchText == null ? "" : TextFolder.foldCompact(searchText);
+        lock.readLock().lock();
+        try {
+            Collection<Long> candidates;
+            if (query.isEmpty()) {
+                candidates = products.keySet();
+            } else {
+                Set<Long> matches = new HashSet<>();
+                for (String token : matchingTokens(query)) {
+                    matches.addAll(postings.get(token));
+                }
+                candidates = matches;
+            }
+
+            List<Long> result = new ArrayList<>(candidates.size());
+            for (Long id : candidates) {
+                if (categoryId == null || categoryId.equals(products.get(id).categoryId())) {
+                    result.add(id);
+                }
+            }
+            Collections.sort(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca por relevancia: todos los términos deben aparecer en el nombre, la categoría o la
+     * descripción, y pesa más una coincidencia en el nombre que en la categoría, y esta más que
+     * en la descripción. Sin texto devuelve todos los productos ordenados por ID.
+     * En el mismo recorrido de los resultados se cuentan las facetas.
+     * <p>
+     * Con {@code fuzzy}, una palabra que no aparece en el catálogo se reemplaza por las palabras a una o
+     * dos ediciones de distancia, que puntúan menos cuanto más lejos están.
+     *
+     * @param searchText  Texto buscado.
+     * @param categoryId  Categoría opcional por la que filtrar.
+     * @param page        Número de página, desde 0.
+     * @param size        Tamaño de la página.
+     * @param fuzzy       Si se toleran errores de tipeo.
+     * @param unavailable Recibe los IDs coincidentes y devuelve los que hay que descartar; se llama sin el bloqueo tomado.
+     * @return IDs de la página pedida, del más al menos relevante, la cantidad total de coincidencias y las facetas.
+     */
+    public RankedHits searchRanked(String searchText, Long categoryId, int page, int size, boolean fuzzy,
+                                   Function<Collection<Long>, Set<Long>> unavailable) {
+        List<String> words = RankedTermIndex.queryWords(searchText);
+        IntFunction<Map<String, Float>> corrections = fuzzy ? i -> corrections(words.get(i), i == words.size() - 1) : null;
+        Map<Long, Float> scores;
+        Map<Long, IndexedProduct> matches;
+        lock.readLock().lock();
+        try {
+            scores = words.isEmpty() ? null : rankedTerms.score(words, corrections);
+            Collection<Long> ids = scores == null ? products.keySet() : scores.keySet();
+            matches = new HashMap<>(ids.size() * 2);
+            for (Long id : ids) {
+                matches.put(id, products.get(id));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Set<Long> excluded = matches.isEmpty() ? Collections.emptySet() : unavailable.apply(matches.keySet());
+
+        // Mayor puntuación primero; a igual puntuación, el ID menor
+        Comparator<Map.Entry<Long, Float>> ranking = Map.Entry.<Long, Float>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey());
+        long wanted = (long) page * size + size;
+        PriorityQueue<Map.Entry<Long, Float>> best = new PriorityQueue<>(ranking.reversed());
+        FacetCounter facets = new FacetCounter();
+        long totalHits = 0;
+        for (Map.Entry<Long, IndexedProduct> match : matches.entrySet()) {
+            Long id = match.getKey();
+            IndexedProduct product = match.getValue();
+            if (excluded.contains(id)) {
+                continue;
+            }
+            facets.countCategory(product.categoryId(), product.categoryName());
+            if (categoryId != null && !categoryId.equals(product.categoryId())) {
+                continue;
+            }
+            facets.countFiltered(product.rentType(), product.price());
+            totalHits++;
+
+            Map.Entry<Long, Float> hit = Map.entry(id, scores == null ? 0f : scores.get(id));
+            if (best.size() < wanted) {
+                best.add(hit);
+            } else if (ranking.compare(hit, best.peek()) < 0) {
+                best.poll();
+                best.add(hit);
+            }
+        }
+
+        List<Map.Entry<Long, Float>> top = new ArrayList<>(best);
+        top.sort(ranking);
+        List<Long> ids = new ArrayList<>(size);
+        int from = (int) Math.min((long) page * size, top.size());
+        for (int i = from; i < top.size(); i++) {
+            ids.add(top.get(i).getKey());
+        }
+        return new RankedHits(ids, totalHits, facets.toDTO());
+    }
+
+    /**
+     * Forma normalizada de una búsqueda por relevancia: dos textos con la misma forma devuelven lo mismo.
+     */
+    public static String normalizeRankedQuery(String searchText) {
+        return String.join(" ", RankedTermIndex.analyzeQuery(searchText));
+    }
+
+    /**
+     * Autocompleta una palabra con los términos más frecuentes del catálogo que empiezan igual.
+     * Con {@code fuzzy}, si no alcanzan, completa con las palabras cuyo comienzo está a una o dos
+     * ediciones del texto, de la más cercana a la más lejana.
+     *
+     * @param partialText Texto parcial; se pliega igual que la búsqueda.
+     * @param limit       Cantidad máxima de sugerencias (hasta {@value SuggestionTrie#MAX_COMPLETIONS}).
+     * @param fuzzy       Si se toleran errores de tipeo.
+     * @return Términos sugeridos como aparecen en el catálogo, de mayor a menor cantidad de productos.
+     */
+    public List<String> suggest(String partialText, int limit, boolean fuzzy) {
+        String prefix = TextFolder.foldCompact(partialText);
+        if (prefix.isEmpty()) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            List<String> terms = new ArrayList<>(suggestions.complete(prefix, limit));
+            if (fuzzy && terms.size() < limit) {
+                for (FuzzyTermIndex.Match match : fuzzyTerms.matches(prefix, true, limit)) {
+                    if (terms.size() == limit) {
+                        break;
+                    }
+                    if (!terms.contains(match.term())) {
+                        terms.add(match.term());
+                    }
+                }
+            }
+            List<String> result = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                result.add(suggestions.display(term));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Correcciones de una palabra sin coincidencias, ya reducidas como los términos del índice
+    private Map<String, Float> corrections(String word, boolean prefix) {
+        Map<String, Float> corrections = new HashMap<>();
+        for (FuzzyTermIndex.Match match : fuzzyTerms.matches(word, prefix, MAX_CORRECTIONS)) {
+            corrections.merge(RankedTermIndex.stem(match.term()), 1f / (1 + match.distance()), Math::max);
+        }
+        return corrections;
+    }
+
+    // Tokens que contienen la consulta: se parte del trigrama menos frecuente y se verifica cada candidato
+    private Collection<String> matchingTokens(String query) {
+        Collection<String> candidates = postings.keySet();
+        if (query.length() >= 3) {
+            for (int i = 0; i + 3 <= query.length(); i++) {
+                Set<String> tokens = trigrams.get(query.substring(i, i + 3));
+                if (tokens == null) {
+                    return Collections.emptyList();
+                }
+                if (tokens.size() < candidates.size()) {
+                    candidates = tokens;
+                }
+            }
+        }
+        List<String> matches = new ArrayList<>();
+        for (String token : candidates) {
+            if (token.contains(query)) {
+                matches.add(token);
+            }
+        }
+        return matches;
+    }
+
+    private void add(ProductDTO product) {
+        Set<String> tokens = new HashSet<>();
+        addTokens(tokens, product.getName());
+        addTokens(tokens, product.getDescription());
+        if (product.getCategory() != null) {
+            addTokens(tokens, product.getCategory().getName());
+        }
+        Long categoryId = product.getCategory() == null ? null : product.getCategory().getId();
+        String categoryName = product.getCategory() == null ? null : product.getCategory().getName();
+        Map<String, String> words = words(product.getName(), product.getDescription(), categoryName);
+        Map<String, Float> terms = RankedTermIndex.analyze(product.getName(), categoryName, product.getDescription());
+        products.put(product.getId(), new IndexedProduct(categoryId, categoryName, product.getRentType(), product.getPrice(),
+                tokens, words, terms));
+        for (Map.Entry<String, String> word : words.entrySet()) {
+            suggestions.adjust(word.getKey(), word.getValue(), 1);
+            fuzzyTerms.adjust(word.getKey(), 1);
+        }
+        rankedTerms.add(product.getId(), terms, words.keySet());
+
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, key -> {
+                for (int i = 0; i + 3 <= key.length(); i++) {
+                    trigrams.computeIfAbsent(key.substring(i, i + 3), trigram -> new HashSet<>()).add(key);
+                }
+                return new HashSet<>();
+            }).add(product.getId());
+        }
+    }
+
+    private void remove(Long productId) {
+        IndexedProduct product = products.remove(productId);
+        if (product == null) {
+            return;
+        }
+        for (Map.Entry<String, String> word : product.words().entrySet()) {
+            suggestions.adjust(word.getKey(), word.getValue(), -1);
+            fuzzyTerms.adjust(word.getKey(), -1);
+        }
+        rankedTerms.remove(productId, product.terms(), product.words().keySet());
+        for (String token : product.tokens()) {
+            Set<Long> ids = postings.get(token);
+            ids.remove(productId);
+            if (ids.isEmpty()) {
+                postings.remove(token);
+                for (int i = 0; i + 3 <= token.length(); i++) {
+                    String trigram = token.substring(i, i + 3);
+                    Set<String> tokens = trigrams.get(trigram);
+                    tokens.remove(token);
+                    if (tokens.isEmpty()) {
+                        trigrams.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    private void addTokens(Set<String> tokens, String text) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        for (String token : WHITESPACE.split(TextFolder.fold(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+    }
+
+    // Palabras para el autocompletado, sin signos de puntuación y de al menos dos caracteres: la forma plegada
+    // de cada una con la primera forma en que aparece en los textos
+    private Map<String, String> words(String... texts) {
+        Map<String, String> words = new HashMap<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            for (String word : WORD_SEPARATOR.split(text)) {
+                String folded = TextFolder.fold(word);
+                if (folded.length() >= 2) {
+                    words.putIfAbsent(folded, word);
+                }
+            }
+        }
+        return words;
+    }
+
+    private record IndexedProduct(Long categoryId, String categoryName, RentType rentType, double price,
+                                  Set<String> tokens, Map<String, String> words, Map<String, Float> terms) {
+    }
+
+    /**
+     * Una página de resultados de {@link #searchRanked(String, Long, int, int, boolean, Function)}.
+     *
+     * @param ids       IDs de la página, del más al menos relevante.
+     * @param totalHits Cantidad total de productos que coinciden.
+     * @param facets    Facetas de todos los resultados.
+     */
+    public record RankedHits(List<Long> ids, long totalHits, ProductSearchFacetsDTO facets) {
+    }
+}
@@ -0,0 +1,42 @@
+package proyecto.dh.resources.product.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import proyecto.dh.resources.product.service.ProductSummaryService;
+
+/**
+ * Construye el índice de búsqueda al arrancar, a partir de los resúmenes de productos.
+ * Se ejecuta después de la generación de resúmenes; si estos no están listos, la búsqueda
+ * sigue resolviéndose en la base de datos.
+ */
+@Component
+@Order(2)
+public class ProductSearchIndexLoader implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndexLoader.class);
+
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSummaryService productSummaryService;
+
+    public ProductSearchIndexLoader(ProductSearchIndex productSearchIndex, ProductSummaryService productSummaryService) {
+        this.productSearchIndex = productSearchIndex;
+        this.productSummaryService = productSummaryService;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!productSummaryService.isReady()) {
+            logger.warn("Resúmenes de productos no disponibles; la búsqueda usará la base de datos");
+            return;
+        }
+        try {
+            productSearchIndex.rebuild(() -> productSummaryService.findAll().orElseThrow());
+            logger.info("Índice de búsqueda de productos construido");
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo construir el índice de búsqueda; la búsqueda usará la base de datos", e);
+        }
+    }
+}
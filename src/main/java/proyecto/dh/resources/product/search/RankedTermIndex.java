@@ -0,0 +1,218 @@
+package proyecto.dh.resources.product.search;
+
+import proyecto.dh.common.utils.TextFolder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de términos con puntuación BM25 para la búsqueda por relevancia.
+ * Cada aparición de un término suma el peso de su campo (nombre &gt; categoría &gt; descripción,
+ * con los valores por defecto de ts_rank para los pesos A, B y C), y todos los términos de la
+ * consulta deben aparecer; el último se toma como prefijo para que funcione mientras se escribe.
+ * Ese prefijo se compara con los términos reducidos y también con las palabras sin reducir, porque
+ * la reducción cambia el final: "luc" no es prefijo de "luz", la forma reducida de "luces".
+ * <p>
+ * Igual que {@link SuggestionTrie}, se modifica con el bloqueo de escritura de {@link ProductSearchIndex}.
+ */
+class RankedTermIndex {
+
+    static final float NAME_WEIGHT = 1.0f;
+    static final float CATEGORY_WEIGHT = 0.4f;
+    static final float DESCRIPTION_WEIGHT = 0.2f;
+
+    private static final float K1 = 1.2f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    // Palabras plegadas sin reducir, con la cantidad de productos que las contienen, para los prefijos
+    private final NavigableMap<String, Integer> words = new TreeMap<>();
+    private int documents;
+
+    /**
+     * Calcula el peso acumulado de cada término de un producto.
+     */
+    static Map<String, Float> analyze(String name, String categoryName, String description) {
+        Map<String, Float> terms = new HashMap<>();
+        addTerms(terms, name, NAME_WEIGHT);
+        addTerms(terms, categoryName, CATEGORY_WEIGHT);
+        addTerms(terms, description, DESCRIPTION_WEIGHT);
+        return terms;
+    }
+
+    /**
+     * Convierte el texto buscado en términos, sin repetidos y en el orden escrito.
+     */
+    static List<String> analyzeQuery(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String word : queryWords(text)) {
+            terms.add(stem(word));
+        }
+        return terms;
+    }
+
+    /**
+     * Palabras del texto buscado, plegadas y sin reducir, alineadas con {@link #analyzeQuery(String)}:
+     * si dos palabras dan el mismo término, se queda la primera.
+     */
+    static List<String> queryWords(String text) {
+        Set<String> terms = new HashSet<>();
+        List<String> words = new ArrayList<>();
+        if (text != null) {
+            for (String word : WORD_SEPARATOR.split(TextFolder.fold(text))) {
+                if (!word.isEmpty() && terms.add(stem(word))) {
+                    words.add(word);
+                }
+            }
+        }
+        return words;
+    }
+
+    // Reducción mínima del plural en español: "luces" → "luz", "cámaras" → "camara"
+    static String stem(String word) {
+        if (word.length() > 4 && word.endsWith("ces")) {
+            return word.substring(0, word.length() - 3) + "z";
+        }
+        if (word.length() > 3 && word.endsWith("s")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    /**
+     * @param terms     Términos del producto, calculados con {@link #analyze(String, String, String)}.
+     * @param productWords Palabras plegadas y sin reducir del producto, para buscar por prefijo.
+     */
+    void add(Long productId, Map<String, Float> terms, Collection<String> productWords) {
+        for (Map.Entry<String, Float> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), key -> new HashMap<>()).put(productId, term.getValue());
+        }
+        for (String word : productWords) {
+            words.merge(word, 1, Integer::sum);
+        }
+        documents++;
+    }
+
+    void remove(Long productId, Map<String, Float> terms, Collection<String> productWords) {
+        for (String word : productWords) {
+            if (words.merge(word, -1, Integer::sum) <= 0) {
+                words.remove(word);
+            }
+        }
+        for (String term : terms.keySet()) {
+            Map<Long, Float> products = postings.get(term);
+            if (products != null) {
+                products.remove(productId);
+                if (products.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        documents--;
+    }
+
+    void clear() {
+        postings.clear();
+        words.clear();
+        documents = 0;
+    }
+
+    /**
+     * Puntúa los productos que contienen todos los términos de la consulta. Un término sin coincidencias
+     * puede reemplazarse por sus correcciones, cada una con la puntuación reducida por su factor.
+     *
+     * @param queryWords  Palabras obtenidas con {@link #queryWords(String)}; no puede estar vacío.
+     * @param corrections Recibe la posición de una palabra sin coincidencias y devuelve sus correcciones, ya
+     *                    reducidas, con su factor (entre 0 y 1). Nulo para no corregir.
+     * @return Puntuación de cada producto coincidente.
+     */
+    Map<Long, Float> score(List<String> queryWords, IntFunction<Map<String, Float>> corrections) {
+        List<Map<Long, Float>> perTerm = new ArrayList<>(queryWords.size());
+        for (int i = 0; i < queryWords.size(); i++) {
+            String word = queryWords.get(i);
+            boolean prefix = i == queryWords.size() - 1 && word.length() >= MIN_PREFIX_LENGTH;
+            Map<Long, Float> scores = prefix ? scorePrefix(word) : scoreTerms(List.of(stem(word)));
+            if (scores.isEmpty() && corrections != null) {
+                for (Map.Entry<String, Float> correction : corrections.apply(i).entrySet()) {
+                    float factor = correction.getValue();
+                    scoreTerms(List.of(correction.getKey())).forEach((id, score) -> scores.merge(id, score * factor, Math::max));
+                }
+            }
+            if (scores.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            perTerm.add(scores);
+        }
+
+        // Se recorre el término menos frecuente y se descarta lo que falte en los demás
+        perTerm.sort(Comparator.comparingInt(Map::size));
+        Map<Long, Float> result = new HashMap<>(perTerm.get(0));
+        for (int i = 1; i < perTerm.size() && !result.isEmpty(); i++) {
+            Map<Long, Float> scores = perTerm.get(i);
+            result.entrySet().removeIf(entry -> {
+                Float score = scores.get(entry.getKey());
+                if (score == null) {
+                    return true;
+                }
+                entry.setValue(entry.getValue() + score);
+                return false;
+            });
+        }
+        return result;
+    }
+
+    // Términos que empiezan con la forma reducida del prefijo, más las formas reducidas de las palabras que empiezan con él
+    private Map<Long, Float> scorePrefix(String word) {
+        String term = stem(word);
+        Set<String> terms = new HashSet<>(postings.subMap(term, true, term + Character.MAX_VALUE, false).keySet());
+        for (String match : words.subMap(word, true, word + Character.MAX_VALUE, false).keySet()) {
+            terms.add(stem(match));
+        }
+        return scoreTerms(terms);
+    }
+
+    private Map<Long, Float> scoreTerms(Collection<String> terms) {
+        Map<Long, Float> scores = new HashMap<>();
+        for (String term : terms) {
+            Map<Long, Float> products = postings.get(term);
+            if (products == null) {
+                continue;
+            }
+            float idf = idf(products.size());
+            for (Map.Entry<Long, Float> product : products.entrySet()) {
+                float weight = product.getValue();
+                float score = idf * weight * (K1 + 1) / (weight + K1);
+                // Si el prefijo coincide con varios términos del mismo producto, cuenta el mejor
+                scores.merge(product.getKey(), score, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private float idf(int documentFrequency) {
+        return (float) Math.log(1 + (documents - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static void addTerms(Map<String, Float> terms, String text, float weight) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        for (String word : WORD_SEPARATOR.split(TextFolder.fold(text))) {
+            if (!word.isEmpty()) {
+                terms.merge(stem(word), weight, Float::sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package proyecto.dh.resources.product.search;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import proyecto.dh.common.enums.SearchKind;
+import proyecto.dh.common.utils.TextFolder;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Registro de búsquedas para la analítica, sin agregar latencia a la búsqueda.
+ * Cada búsqueda se encola en un buffer en memoria sin bloqueos (una cola enlazada con CAS y un
+ * contador que la acota); si el buffer está lleno, la búsqueda se descarta y se cuenta. Un hilo en
+ * segundo plano vacía el buffer periódicamente y lo inserta en search_queries con lotes JDBC.
+ * El mismo hilo borra cada hora las búsquedas más viejas que la retención configurada.
+ * Al cerrar la aplicación se escribe lo que quede pendiente.
+ */
+@Component
+public class SearchAnalytics {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchAnalytics.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final int PURGE_BATCH_SIZE = 10000;
+    private static final Duration PURGE_INTERVAL = Duration.ofHours(1);
+    private static final int MAX_QUERY_LENGTH = 255;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final String INSERT_SQL = "INSERT INTO search_queries (query_text, kind, result_count, latency_micros, searched_at) VALUES (?, ?, ?, ?, ?)";
+    // Por bloques, para no bloquear la tabla con un único DELETE grande
+    private static final String PURGE_SQL = "DELETE FROM search_queries WHERE id IN (SELECT id FROM search_queries WHERE searched_at < ? LIMIT " + PURGE_BATCH_SIZE + ")";
+
+    private final ConcurrentLinkedQueue<SearchEvent> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final JdbcTemplate jdbcTemplate;
+    private final int capacity;
+    private final Duration flushInterval;
+    private final Duration retention;
+    private ScheduledExecutorService writer;
+
+    public SearchAnalytics(JdbcTemplate jdbcTemplate,
+                           @Value("${product.search-analytics.buffer-size:10000}") int capacity,
+                           @Value("${product.search-analytics.flush-interval:5s}") Duration flushInterval,
+                           @Value("${product.search-analytics.retention:90d}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.capacity = capacity;
+        this.flushInterval = flushInterval;
+        this.retention = retention;
+    }
+
+    @PostConstruct
+    void start() {
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-analytics-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = flushInterval.toMillis();
+        writer.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                // Una excepción cancelaría las ejecuciones siguientes
+                logger.error("Error al guardar la analítica de búsquedas", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+        writer.scheduleWithFixedDelay(() -> {
+            try {
+                purge();
+            } catch (RuntimeException e) {
+                logger.error("Error al borrar la analítica de búsquedas vencida", e);
+            }
+        }, 0, PURGE_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+
+    /**
+     * Registra una búsqueda. No bloquea ni accede a la base de datos.
+     *
+     * @param kind         Tipo de búsqueda.
+     * @param text         Texto buscado; se guarda plegado, igual que lo compara la búsqueda.
+     * @param resultCount  Cantidad de resultados.
+     * @param latencyNanos Tiempo que tardó la búsqueda, en nanosegundos.
+     */
+    public void record(SearchKind kind, String text, long resultCount, long latencyNanos) {
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            dropped.incrementAndGet();
+            return;
+        }
+        buffer.offer(new SearchEvent(normalize(text), kind, (int) Math.min(resultCount, Integer.MAX_VALUE),
+                TimeUnit.NANOSECONDS.toMicros(latencyNanos), LocalDateTime.now()));
+    }
+
+    public long pending() {
+        return size.get();
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Escribe todo lo pendiente en lotes de {@value #BATCH_SIZE}.
+     */
+    public synchronized void flush() {
+        List<SearchEvent> batch = new ArrayList<>(BATCH_SIZE);
+        SearchEvent event;
+        while ((event = buffer.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(event);
+            if (batch.size() == BATCH_SIZE) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    /**
+     * Borra las búsquedas más viejas que la retención.
+     *
+     * @return Cantidad de búsquedas borradas.
+     */
+    public int purge() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(retention));
+        int deleted = 0;
+        int batch;
+        do {
+            batch = jdbcTemplate.update(PURGE_SQL, cutoff);
+            deleted += batch;
+        } while (batch == PURGE_BATCH_SIZE);
+        if (deleted > 0) {
+            logger.info("Búsquedas anteriores a {} borradas: {}", cutoff, deleted);
+        }
+        return deleted;
+    }
+
+    private void write(List<SearchEvent> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, event) -> {
+                statement.setString(1, event.query());
+                statement.setString(2, event.kind().name());
+                statement.setInt(3, event.resultCount());
+                statement.setLong(4, event.latencyMicros());
+                statement.setTimestamp(5, Timestamp.valueOf(event.searchedAt()));
+            });
+        } catch (DataAccessException e) {
+            // La analítica no se reintenta: perder un lote es preferible a acumular memoria
+            dropped.addAndGet(batch.size());
+            logger.warn("No se pudieron guardar {} búsquedas: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String query = WHITESPACE.matcher(TextFolder.fold(text)).replaceAll(" ").trim();
+        return query.length() > MAX_QUERY_LENGTH ? query.substring(0, MAX_QUERY_LENGTH) : query;
+    }
+
+    private record SearchEvent(String query, SearchKind kind, int resultCount, long latencyMicros, LocalDateTime searchedAt) {
+    }
+}
@@ -0,0 +1,223 @@
+package proyecto.dh.resources.product.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Trie de términos con su frecuencia (cantidad de productos que los contienen) para el autocompletado.
+ * Cada nodo guarda los {@value #MAX_COMPLETIONS} términos más frecuentes de su subárbol, así que
+ * una consulta solo recorre el prefijo. Las altas se reflejan en esas listas al momento; cuando una
+ * baja saca a un término de una lista llena, el nodo queda marcado y se recalcula en la próxima consulta.
+ * Los términos se guardan plegados, junto con las formas en que aparecen en el catálogo para mostrarlos
+ * con sus mayúsculas y acentos.
+ * <p>
+ * No es seguro para escrituras concurrentes: las modificaciones deben hacerse con el bloqueo de
+ * escritura de {@link ProductSearchIndex}; las consultas pueden ejecutarse en paralelo entre sí.
+ */
+class SuggestionTrie {
+
+    static final int MAX_COMPLETIONS = 20;
+
+    private final Node root = new Node();
+    private final Map<String, Integer> counts = new HashMap<>();
+    // Por término plegado, cada forma en que está escrito y en cuántos productos
+    private final Map<String, Map<String, Integer>> displayForms = new HashMap<>();
+    // Mayor frecuencia primero; a igual frecuencia, orden alfabético
+    private final Comparator<String> ranking = Comparator.<String>comparingInt(term -> counts.getOrDefault(term, 0)).reversed()
+            .thenComparing(Comparator.naturalOrder());
+
+    void clear() {
+        root.clear();
+        counts.clear();
+        displayForms.clear();
+    }
+
+    /**
+     * Suma (o resta) productos a la frecuencia de un término, escrito en esos productos como {@code display}.
+     */
+    void adjust(String term, String display, int delta) {
+        Map<String, Integer> forms = displayForms.computeIfAbsent(term, key -> new HashMap<>());
+        if (forms.merge(display, delta, Integer::sum) <= 0) {
+            forms.remove(display);
+        }
+        if (forms.isEmpty()) {
+            displayForms.remove(term);
+        }
+
+        int count = counts.getOrDefault(term, 0) + delta;
+        if (count > 0) {
+            counts.put(term, count);
+        } else {
+            counts.remove(term);
+        }
+
+        List<Node> path = new ArrayList<>(term.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < term.length(); i++) {
+            node = node.child(term.charAt(i), true);
+            path.add(node);
+        }
+        node.terminal = count > 0;
+
+        for (Node step : path) {
+            if (delta > 0) {
+                promote(step, term);
+            } else {
+                demote(step, term, count);
+            }
+        }
+    }
+
+    /**
+     * Devuelve los términos plegados más frecuentes que empiezan con el prefijo.
+     */
+    List<String> complete(String prefix, int limit) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i), false);
+        }
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        List<String> top = node.dirty ? recompute(node, prefix) : node.top;
+        return top.subList(0, Math.min(limit, top.size()));
+    }
+
+    /**
+     * Forma de mostrar un término: la más usada en el catálogo y, a igual cantidad de productos,
+     * la primera en orden alfabético (las mayúsculas van antes).
+     */
+    String display(String term) {
+        Map<String, Integer> forms = displayForms.get(term);
+        if (forms == null) {
+            return term;
+        }
+        String best = null;
+        int bestCount = 0;
+        for (Map.Entry<String, Integer> form : forms.entrySet()) {
+            if (form.getValue() > bestCount || (form.getValue() == bestCount && form.getKey().compareTo(best) < 0)) {
+                best = form.getKey();
+                bestCount = form.getValue();
+            }
+        }
+        return best;
+    }
+
+    private void promote(Node node, String term) {
+        if (node.dirty) {
+            return;
+        }
+        List<String> top = new ArrayList<>(node.top);
+        if (!top.contains(term)) {
+            top.add(term);
+        }
+        top.sort(ranking);
+        if (top.size() > MAX_COMPLETIONS) {
+            top.remove(top.size() - 1);
+        }
+        node.top = Collections.unmodifiableList(top);
+    }
+
+    private void demote(Node node, String term, int count) {
+        if (node.dirty || !node.top.contains(term)) {
+            return;
+        }
+        if (count > 0 && node.top.size() < MAX_COMPLETIONS) {
+            // La lista no está llena: contiene todo el subárbol y basta con reordenar
+            List<String> top = new ArrayList<>(node.top);
+            top.sort(ranking);
+            node.top = Collections.unmodifiableList(top);
+        } else if (count <= 0 && node.top.size() < MAX_COMPLETIONS) {
+            List<String> top = new ArrayList<>(node.top);
+            top.remove(term);
+            node.top = Collections.unmodifiableList(top);
+        } else {
+            // Otro término del subárbol podría ocupar su lugar
+            node.dirty = true;
+        }
+    }
+
+    // Recorre el subárbol una sola vez y deja el resultado cacheado en el nodo
+    private List<String> recompute(Node node, String prefix) {
+        synchronized (node) {
+            if (!node.dirty) {
+                return node.top;
+            }
+            PriorityQueue<String> best = new PriorityQueue<>(ranking.reversed());
+            Deque<Node> nodes = new ArrayDeque<>();
+            Deque<String> words = new ArrayDeque<>();
+            nodes.push(node);
+            words.push(prefix);
+            while (!nodes.isEmpty()) {
+                Node current = nodes.pop();
+                String word = words.pop();
+                if (current.terminal) {
+                    best.add(word);
+                    if (best.size() > MAX_COMPLETIONS) {
+                        best.poll();
+                    }
+                }
+                for (int i = 0; i < current.size; i++) {
+                    nodes.push(current.children[i]);
+                    words.push(word + current.keys[i]);
+                }
+            }
+            List<String> top = new ArrayList<>(best);
+            top.sort(ranking);
+            node.top = Collections.unmodifiableList(top);
+            node.dirty = false;
+            return node.top;
+        }
+    }
+
+    private static final class Node {
+        // Hijos en arreglos ordenados por carácter: más compacto que un mapa por nodo
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private int size;
+        private boolean terminal;
+        private volatile List<String> top = Collections.emptyList();
+        private volatile boolean dirty;
+
+        private void clear() {
+            keys = new char[0];
+            children = new Node[0];
+            size = 0;
+            terminal = false;
+            top = Collections.emptyList();
+            dirty = false;
+        }
+
+        private Node child(char key, boolean create) {
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            if (index >= 0) {
+                return children[index];
+            }
+            if (!create) {
+                return null;
+            }
+            int insertAt = -index - 1;
+            if (size == keys.length) {
+                int capacity = Math.max(2, size * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, insertAt, keys, insertAt + 1, size - insertAt);
+            System.arraycopy(children, insertAt, children, insertAt + 1, size - insertAt);
+            Node node = new Node();
+            keys[insertAt] = key;
+            children[insertAt] = node;
+            size++;
+            return node;
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package proyecto.dh.resources.product.service;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -8,10 +7,13 @@ import proyecto.dh.exceptions.handler.BadRequestException;
 import proyecto.dh.exceptions.handler.NotFoundException;
 import proyecto.dh.resources.attachment.entity.Attachment;
 import proyecto.dh.resources.attachment.service.AttachmentService;
+import proyecto.dh.resources.product.cache.CatalogVersion;
+import proyecto.dh.resources.product.cache.ProductCache;
 import proyecto.dh.resources.product.dto.*;
 import proyecto.dh.resources.product.entity.CategoryFeature;
 import proyecto.dh.resources.product.entity.CategoryPolicy;
 import proyecto.dh.resources.product.entity.ProductCategory;
+import proyecto.dh.resources.product.mapper.CategoryMapper;
 import proyecto.dh.resources.product.repository.CategoryFeatureRepository;
 import proyecto.dh.resources.product.repository.ProductCategoryRepository;
 
@@ -31,7 +33,16 @@ public class CategoryService {
     private AttachmentService attachmentService;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private CategoryMapper categoryMapper;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ProductSummaryService productSummaryService;
 
     @Transactional
     public CategoryDTO save(CategorySaveDTO categorySaveDTO) throws BadRequestException, NotFoundException {
@@ -45,6 +56,7 @@ public class CategoryService {
         handleAttachment(category, categorySaveDTO.getAttachmentId());
 
         ProductCategory savedCategory = categoryRepository.save(category);
+        catalogVersion.bump();
         return convertToDTO(savedCategory);
     }
 
@@ -53,14 +65,19 @@ public class CategoryService {
         ProductCategory existingCategory = findByIdEntity(id).orElseThrow(() -> new NotFoundException("Categoría con ID " + id + " no encontrada."));
         validateSlug(categorySaveDTO.getSlug());
         checkCategoryExistenceForUpdate(categorySaveDTO.getName(), categorySaveDTO.getSlug(), existingCategory);
+        Set<Long> affectedFeatureIds = collectFeatureIds(existingCategory);
 
         updateFeatures(existingCategory, categorySaveDTO.getFeatures());
         updatePolicies(existingCategory, categorySaveDTO.getPolicies());
 
-        modelMapper.map(categorySaveDTO, existingCategory);
+        categoryMapper.updateEntity(categorySaveDTO, existingCategory);
         handleAttachment(existingCategory, categorySaveDTO.getAttachmentId());
 
         ProductCategory savedCategory = categoryRepository.save(existingCategory);
+        affectedFeatureIds.addAll(collectFeatureIds(savedCategory));
+        productSummaryService.refreshCategory(id, affectedFeatureIds);
+        productCache.evictCategory(id, affectedFeatureIds);
+        catalogVersion.bump();
         return convertToDTO(savedCategory);
     }
 
@@ -78,6 +95,7 @@ public class CategoryService {
         }
 
         categoryRepository.deleteById(id);
+        catalogVersion.bump();
     }
 
     public CategoryDTO findById(Long id) throws NotFoundException {
@@ -89,6 +107,18 @@ public class CategoryService {
         return categoryRepository.findById(id);
     }
 
+    private Set<Long> collectFeatureIds(ProductCategory category) {
+        Set<Long> featureIds = new HashSet<>();
+        if (category.getCategoryFeatures() != null) {
+            for (CategoryFeature feature : category.getCategoryFeatures()) {
+                if (feature.getId() != null) {
+                    featureIds.add(feature.getId());
+                }
+            }
+        }
+        return featureIds;
+    }
+
     private void validateSlug(String slug) throws BadRequestException {
         if (slug == null || !slug.equals(slug.toLowerCase()) || slug.contains(" ")) {
             throw new BadRequestException("El slug debe estar en minúsculas y no debe contener espacios");
@@ -96,23 +126,11 @@ public class CategoryService {
     }
 
     private CategoryDTO convertToDTO(ProductCategory category) {
-        CategoryDTO categoryDTO = modelMapper.map(category, CategoryDTO.class);
-        if (category.getCategoryFeatures() != null) {
-            List<CategoryFeatureDTO> features = category.getCategoryFeatures().stream().map(feature -> modelMapper.map(feature, CategoryFeatureDTO.class)).collect(Collectors.toList());
-            categoryDTO.setFeatures(features);
-        }
-
-        if (category.getCategoryPolicies() != null) {
-            List<CategoryPolicyDTO> policies = category.getCategoryPolicies().stream().map(policy -> modelMapper.map(policy, CategoryPolicyDTO.class)).collect(Collectors.toList());
-            categoryDTO.setPolicies(policies);
-        }
-
-        return categoryDTO;
-
+        return categoryMapper.toDTO(category);
     }
 
     private ProductCategory convertToEntity(CategorySaveDTO categorySaveDTO) {
-        return modelMapper.map(categorySaveDTO, ProductCategory.class);
+        return categoryMapper.toEntity(categorySaveDTO);
     }
 
     private void checkCategoryExistence(String name, String slug) throws BadRequestException {
@@ -146,7 +164,7 @@ public class CategoryService {
     private void setCategoryFeatures(ProductCategory category, List<CategoryFeatureSaveDTO> features) {
 
         // Se añade para manejar los valores nulos
-        Set<CategoryFeature> featureSet = Optional.ofNullable(features).orElseGet(Collections::emptyList).stream().map(featureSaveDTO -> modelMapper.map(featureSaveDTO, CategoryFeature.class)).peek(feature -> {
+        Set<CategoryFeature> featureSet = Optional.ofNullable(features).orElseGet(Collections::emptyList).stream().map(categoryMapper::toFeatureEntity).peek(feature -> {
             if (feature.getCategories() == null) {
                 feature.setCategories(Set.of(category));
             } else {
@@ -163,7 +181,7 @@ public class CategoryService {
                 .orElseGet(Collections::emptyList)
                 .stream()
                 .map(featureDTO -> {
-                    CategoryFeature feature = modelMapper.map(featureDTO, CategoryFeature.class);
+                    CategoryFeature feature = categoryMapper.toFeatureEntity(featureDTO);
                     feature.setCategories(new HashSet<>(Collections.singletonList(category)));
                     return feature;
                 })
@@ -177,7 +195,7 @@ public class CategoryService {
                 .orElseGet(Collections::emptyList)
                 .stream()
                 .map(policyDTO -> {
-                    CategoryPolicy policy = modelMapper.map(policyDTO, CategoryPolicy.class);
+                    CategoryPolicy policy = categoryMapper.toPolicyEntity(policyDTO);
                     policy.setCategories(new HashSet<>(Collections.singletonList(category)));
                     return policy;
                 })
@@ -218,7 +236,7 @@ public class CategoryService {
                 existingFeature.setIcon(featureDTO.getIcon());
             } else {
                 // Si la característica no existe, crear una nueva instancia y configurarla
-                CategoryFeature newFeature = modelMapper.map(featureDTO, CategoryFeature.class);
+                CategoryFeature newFeature = categoryMapper.toFeatureEntity(featureDTO);
                 newFeature.setCategories(new HashSet<>(Collections.singletonList(category))); // Asignar categoría
                 newFeaturesToAdd.add(newFeature); // Agregar la nueva característica a la lista de añadidos
             }
@@ -266,7 +284,7 @@ public class CategoryService {
                 existingPolicy.setDescription(policyDTO.getDescription());
             } else {
                 // Si la política no existe, crear una nueva instancia y configurarla
-                CategoryPolicy newPolicy = modelMapper.map(policyDTO, CategoryPolicy.class);
+                CategoryPolicy newPolicy = categoryMapper.toPolicyEntity(policyDTO);
                 newPolicy.setCategories(new HashSet<>(Collections.singletonList(category))); // Asignar categoría
                 newPoliciesToAdd.add(newPolicy); // Agregar la nueva política a la lista de añadidos
             }
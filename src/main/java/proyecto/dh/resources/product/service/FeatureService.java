@@ -1,10 +1,10 @@
 package proyecto.dh.resources.product.service;
 
 import com.amazonaws.services.kms.model.NotFoundException;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 import proyecto.dh.resources.product.dto.CategoryFeatureDTO;
 import proyecto.dh.resources.product.entity.ProductCategory;
+import proyecto.dh.resources.product.mapper.CategoryMapper;
 import proyecto.dh.resources.product.entity.CategoryFeature;
 import proyecto.dh.resources.product.repository.CategoryFeatureRepository;
 
@@ -16,11 +16,11 @@ import java.util.stream.Collectors;
 public class FeatureService {
 
     private final CategoryFeatureRepository featureRepository;
-    private final ModelMapper modelMapper;
+    private final CategoryMapper categoryMapper;
 
-    public FeatureService(CategoryFeatureRepository featureRepository, ModelMapper modelMapper) {
+    public FeatureService(CategoryFeatureRepository featureRepository, CategoryMapper categoryMapper) {
         this.featureRepository = featureRepository;
-        this.modelMapper = modelMapper;
+        this.categoryMapper = categoryMapper;
     }
 
     public List<CategoryFeatureDTO> findAll() {
@@ -38,7 +38,7 @@ public class FeatureService {
 
 
     private CategoryFeatureDTO convertToDTO(CategoryFeature feature) {
-        CategoryFeatureDTO featureDTO = modelMapper.map(feature, CategoryFeatureDTO.class);
+        CategoryFeatureDTO featureDTO = categoryMapper.toFeatureDTO(feature);
         featureDTO.setCategoryIds(feature.getCategories().stream().map(ProductCategory::getId).collect(Collectors.toList()));
         return featureDTO;
     }
@@ -1,11 +1,11 @@
 package proyecto.dh.resources.product.service;
 
 import com.amazonaws.services.kms.model.NotFoundException;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 import proyecto.dh.resources.product.dto.CategoryPolicyDTO;
 import proyecto.dh.resources.product.entity.CategoryPolicy;
 import proyecto.dh.resources.product.entity.ProductCategory;
+import proyecto.dh.resources.product.mapper.CategoryMapper;
 import proyecto.dh.resources.product.repository.CategoryPolicyRepository;
 
 import java.util.List;
@@ -16,11 +16,11 @@ import java.util.stream.Collectors;
 public class PolicyService {
 
     private final CategoryPolicyRepository policyRepository;
-    private final ModelMapper modelMapper;
+    private final CategoryMapper categoryMapper;
 
-    public PolicyService(CategoryPolicyRepository policyRepository, ModelMapper modelMapper) {
+    public PolicyService(CategoryPolicyRepository policyRepository, CategoryMapper categoryMapper) {
         this.policyRepository = policyRepository;
-        this.modelMapper = modelMapper;
+        this.categoryMapper = categoryMapper;
     }
 
     public List<CategoryPolicyDTO> findAll() {
@@ -37,7 +37,7 @@ public class PolicyService {
     }
 
     private CategoryPolicyDTO convertToDTO(CategoryPolicy policy) {
-        CategoryPolicyDTO policyDTO = modelMapper.map(policy, CategoryPolicyDTO.class);
+        CategoryPolicyDTO policyDTO = categoryMapper.toPolicyDTO(policy);
         policyDTO.setCategoryIds(policy.getCategories().stream().map(ProductCategory::getId).collect(Collectors.toList()));
         return policyDTO;
     }
@@ -0,0 +1,148 @@
+package proyecto.dh.resources.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import proyecto.dh.common.enums.ExportFormat;
+import proyecto.dh.resources.attachment.entity.Attachment;
+import proyecto.dh.resources.product.entity.CategoryFeature;
+import proyecto.dh.resources.product.entity.Product;
+import proyecto.dh.resources.product.mapper.ProductMapper;
+import proyecto.dh.resources.product.repository.ProductRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Exporta el catálogo completo recorriendo los productos con un cursor de base de datos.
+ * Los productos se procesan en bloques: cada bloque inicializa sus colecciones por lotes,
+ * se escribe en la salida y se libera del contexto de persistencia, de modo que la memoria
+ * usada no depende del tamaño del catálogo.
+ */
+@Service
+public class ProductExportService {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final String CSV_HEADER = "id,name,description,stock,price,rentType,categoryId,categoryName,featureIds,imageUrls";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ObjectMapper objectMapper;
+
+    public ProductExportService(ProductRepository productRepository, ProductMapper productMapper, ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Escribe todos los productos en el formato indicado.
+     *
+     * @param format       Formato de salida (NDJSON o CSV).
+     * @param outputStream Flujo de la respuesta HTTP.
+     * @throws IOException Si falla la escritura.
+     */
+    @Transactional(readOnly = true)
+    public void export(ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<Product> products = productRepository.streamAllByOrderByIdAsc()) {
+            Iterator<Product> iterator = products.iterator();
+            List<Product> chunk = new ArrayList<>(CHUNK_SIZE);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                    writeChunk(chunk, format, writer);
+                    writer.flush();
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeChunk(List<Product> chunk, ExportFormat format, Writer writer) throws IOException {
+        for (Product product : chunk) {
+            if (format == ExportFormat.CSV) {
+                writeCsvRow(product, writer);
+            } else {
+                writer.write(objectMapper.writeValueAsString(productMapper.toDTO(product)));
+            }
+            writer.write('\n');
+        }
+    }
+
+    private void writeCsvRow(Product product, Writer writer) throws IOException {
+        StringBuilder featureIds = new StringBuilder();
+        for (CategoryFeature feature : product.getFeatures()) {
+            if (!featureIds.isEmpty()) {
+                featureIds.append('|');
+            }
+            featureIds.append(feature.getId());
+        }
+        StringBuilder imageUrls = new StringBuilder();
+        for (Attachment attachment : product.getAttachments()) {
+            if (!imageUrls.isEmpty()) {
+                imageUrls.append('|');
+            }
+            imageUrls.append(attachment.getUrl());
+        }
+
+        writer.write(String.valueOf(product.getId()));
+        writer.write(',');
+        writer.write(csv(product.getName()));
+        writer.write(',');
+        writer.write(csv(product.getDescription()));
+        writer.write(',');
+        writer.write(String.valueOf(product.getStock()));
+        writer.write(',');
+        writer.write(String.valueOf(product.getPrice()));
+        writer.write(',');
+        writer.write(String.valueOf(product.getRentType()));
+        writer.write(',');
+        writer.write(String.valueOf(product.getCategory().getId()));
+        writer.write(',');
+        writer.write(csv(product.getCategory().getName()));
+        writer.write(',');
+        writer.write(featureIds.toString());
+        writer.write(',');
+        writer.write(csv(imageUrls.toString()));
+    }
+
+    // Escapa un campo según RFC 4180: se encierra entre comillas si contiene separadores, comillas o saltos de línea
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                needsQuotes = true;
+                break;
+            }
+        }
+        if (!needsQuotes) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,422 @@
+package proyecto.dh.resources.product.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import proyecto.dh.common.enums.RentType;
+import proyecto.dh.exceptions.handler.BadRequestException;
+import proyecto.dh.resources.attachment.entity.Attachment;
+import proyecto.dh.resources.attachment.repository.AttachmentRepository;
+import proyecto.dh.resources.attachment.service.AttachmentService;
+import proyecto.dh.resources.product.cache.CatalogVersion;
+import proyecto.dh.resources.product.cache.ProductCache;
+import proyecto.dh.resources.product.dto.ProductImportResultDTO;
+import proyecto.dh.resources.product.dto.ProductImportResultDTO.RowError;
+import proyecto.dh.resources.product.dto.ProductSaveDTO;
+import proyecto.dh.resources.product.repository.CategoryFeatureRepository;
+import proyecto.dh.resources.product.repository.ProductCategoryRepository;
+import proyecto.dh.resources.product.repository.ProductRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Importación masiva de productos.
+ * Las filas se procesan en bloques: cada bloque se valida, resuelve categorías, características
+ * y adjuntos con una consulta por tipo, y se inserta con lotes JDBC en su propia transacción.
+ * Un bloque que falla no deshace los anteriores, y cada fila rechazada se informa con su motivo.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    private static final int CHUNK_SIZE = 500;
+    private static final String INSERT_PRODUCT_SQL = "INSERT INTO products (name, description, stock, price, rent_type, category_id) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_FEATURE_SQL = "INSERT INTO products_features (product_id, feature_id) VALUES (?, ?)";
+    private static final String ASSIGN_ATTACHMENT_SQL = "UPDATE attachments SET product_id = ? WHERE id = ? AND product_id IS NULL";
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "description", "stock", "price", "rentType", "categoryId");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ProductRepository productRepository;
+    private final ProductCategoryRepository categoryRepository;
+    private final CategoryFeatureRepository featureRepository;
+    private final AttachmentRepository attachmentRepository;
+    private final AttachmentService attachmentService;
+    private final ProductCache productCache;
+    private final CatalogVersion catalogVersion;
+    private final ProductSummaryService productSummaryService;
+
+    public ProductImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, Validator validator, ProductRepository productRepository, ProductCategoryRepository categoryRepository, CategoryFeatureRepository featureRepository, AttachmentRepository attachmentRepository, AttachmentService attachmentService, ProductCache productCache, CatalogVersion catalogVersion, ProductSummaryService productSummaryService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.featureRepository = featureRepository;
+        this.attachmentRepository = attachmentRepository;
+        this.attachmentService = attachmentService;
+        this.productCache = productCache;
+        this.catalogVersion = catalogVersion;
+        this.productSummaryService = productSummaryService;
+    }
+
+    /**
+     * Importa una lista de productos recibida como JSON.
+     *
+     * @param products Productos a importar.
+     * @return Resumen de la importación con los errores por fila.
+     */
+    public ProductImportResultDTO importProducts(List<ProductSaveDTO> products) {
+        List<ImportRow> rows = new ArrayList<>(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            rows.add(new ImportRow(i + 1, products.get(i)));
+        }
+        return importRows(rows, new ArrayList<>());
+    }
+
+    /**
+     * Importa productos desde un CSV con cabecera. Las columnas obligatorias son
+     * name, description, stock, price, rentType y categoryId; featureIds es opcional y
+     * separa los IDs con '|'. Las columnas desconocidas se ignoran, por lo que el CSV
+     * de la exportación del catálogo puede volver a importarse.
+     *
+     * @param input Contenido del archivo CSV en UTF-8.
+     * @return Resumen de la importación con los errores por fila.
+     * @throws IOException         Si falla la lectura del archivo.
+     * @throws BadRequestException Si el archivo está vacío o falta alguna columna obligatoria.
+     */
+    public ProductImportResultDTO importCsv(InputStream input) throws IOException, BadRequestException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<String> header = readCsvRecord(reader);
+        if (header == null) {
+            throw new BadRequestException("El archivo CSV está vacío");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).trim();
+            if (i == 0 && column.startsWith("\uFEFF")) {
+                column = column.substring(1);
+            }
+            columns.put(column, i);
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new BadRequestException("Falta la columna obligatoria: " + column);
+            }
+        }
+
+        List<ImportRow> rows = new ArrayList<>();
+        List<RowError> errors = new ArrayList<>();
+        List<String> record;
+        int rowNumber = 0;
+        while ((record = readCsvRecord(reader)) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            rowNumber++;
+            try {
+                rows.add(new ImportRow(rowNumber, toSaveDTO(record, columns)));
+            } catch (IllegalArgumentException e) {
+                rows.add(new ImportRow(rowNumber, null));
+                errors.add(new RowError(rowNumber, field(record, columns, "name"), e.getMessage()));
+            }
+        }
+        return importRows(rows, errors);
+    }
+
+    private ProductImportResultDTO importRows(List<ImportRow> rows, List<RowError> errors) {
+        int imported = 0;
+        for (int from = 0; from < rows.size(); from += CHUNK_SIZE) {
+            imported += importChunk(rows.subList(from, Math.min(from + CHUNK_SIZE, rows.size())), errors);
+        }
+        if (imported > 0) {
+            productCache.evictLists();
+            catalogVersion.bump();
+        }
+        errors.sort(Comparator.comparingInt(RowError::getRow));
+        return new ProductImportResultDTO(rows.size(), imported, errors.size(), errors);
+    }
+
+    private int importChunk(List<ImportRow> chunk, List<RowError> errors) {
+        List<ImportRow> candidates = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            if (row.product() == null) {
+                continue;
+            }
+            String violations = validate(row.product());
+            if (violations != null) {
+                errors.add(new RowError(row.row(), row.product().getName(), violations));
+            } else {
+                candidates.add(row);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        List<RowError> chunkErrors = new ArrayList<>();
+        try {
+            Integer inserted = transactionTemplate.execute(status -> insertChunk(candidates, chunkErrors, status));
+            errors.addAll(chunkErrors);
+            return inserted == null ? 0 : inserted;
+        } catch (DataAccessException | TransactionException e) {
+            String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            logger.warn("No se pudo guardar el bloque de importación desde la fila {}: {}", candidates.get(0).row(), cause);
+            Set<Integer> rejected = chunkErrors.stream().map(RowError::getRow).collect(Collectors.toSet());
+            errors.addAll(chunkErrors);
+            for (ImportRow row : candidates) {
+                if (!rejected.contains(row.row())) {
+                    errors.add(new RowError(row.row(), row.product().getName(), "No se pudo guardar el bloque: " + cause));
+                }
+            }
+            return 0;
+        }
+    }
+
+    private int insertChunk(List<ImportRow> candidates, List<RowError> errors, TransactionStatus status) {
+        Set<String> names = new HashSet<>();
+        Set<Long> categoryIds = new HashSet<>();
+        Set<Long> featureIds = new HashSet<>();
+        Set<Long> attachmentIds = new HashSet<>();
+        for (ImportRow row : candidates) {
+            ProductSaveDTO product = row.product();
+            names.add(product.getName());
+            categoryIds.add(product.getCategoryId());
+            if (product.getFeatureIds() != null) {
+                featureIds.addAll(product.getFeatureIds());
+            }
+            if (product.getAttachments() != null) {
+                attachmentIds.addAll(product.getAttachments());
+            }
+        }
+
+        // Una consulta por tipo para todo el bloque en lugar de varias por producto
+        Set<String> takenNames = new HashSet<>(productRepository.findExistingNames(names));
+        Set<Long> knownCategories = new HashSet<>(categoryRepository.findExistingIds(categoryIds));
+        Set<Long> knownFeatures = featureIds.isEmpty() ? Set.of() : new HashSet<>(featureRepository.findExistingIds(featureIds));
+        Map<Long, Attachment> attachments = attachmentIds.isEmpty() ? Map.of() : attachmentRepository.findAllById(attachmentIds).stream()
+                .collect(Collectors.toMap(Attachment::getId, attachment -> attachment));
+
+        List<ImportRow> accepted = new ArrayList<>(candidates.size());
+        Set<Long> claimedAttachments = new HashSet<>();
+        for (ImportRow row : candidates) {
+            String error = checkReferences(row.product(), takenNames, knownCategories, knownFeatures, attachments, claimedAttachments);
+            if (error != null) {
+                errors.add(new RowError(row.row(), row.product().getName(), error));
+            } else {
+                takenNames.add(row.product().getName());
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT_SQL, accepted, CHUNK_SIZE, (ps, row) -> {
+            ProductSaveDTO product = row.product();
+            ps.setString(1, product.getName());
+            ps.setString(2, product.getDescription());
+            ps.setInt(3, product.getStock());
+            ps.setDouble(4, product.getPrice());
+            ps.setShort(5, (short) product.getRentType().ordinal());
+            ps.setLong(6, product.getCategoryId());
+        });
+
+        // El nombre es único, así que alcanza con una consulta para recuperar los IDs generados
+        Map<String, Long> idsByName = new HashMap<>();
+        for (Object[] idAndName : productRepository.findIdsByNames(accepted.stream().map(row -> row.product().getName()).collect(Collectors.toSet()))) {
+            idsByName.put((String) idAndName[1], (Long) idAndName[0]);
+        }
+
+        List<Object[]> productFeatures = new ArrayList<>();
+        List<Object[]> productAttachments = new ArrayList<>();
+        List<ImportRow> attachmentRows = new ArrayList<>();
+        for (ImportRow row : accepted) {
+            Long productId = idsByName.get(row.product().getName());
+            if (row.product().getFeatureIds() != null) {
+                for (Long featureId : new HashSet<>(row.product().getFeatureIds())) {
+                    productFeatures.add(new Object[]{productId, featureId});
+                }
+            }
+            if (row.product().getAttachments() != null) {
+                for (Long attachmentId : row.product().getAttachments()) {
+                    productAttachments.add(new Object[]{productId, attachmentId});
+                    attachmentRows.add(row);
+                }
+            }
+        }
+        if (!productFeatures.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_FEATURE_SQL, productFeatures);
+        }
+        if (!productAttachments.isEmpty()) {
+            int[] assigned = jdbcTemplate.batchUpdate(ASSIGN_ATTACHMENT_SQL, productAttachments);
+            // Otra transacción pudo asociar el adjunto después de validarlo; en ese caso el UPDATE no toca ninguna fila
+            // y el bloque se descarta entero, como cuando falla la base
+            Map<Integer, Long> lostAttachments = new LinkedHashMap<>();
+            for (int i = 0; i < assigned.length; i++) {
+                if (assigned[i] == 0) {
+                    lostAttachments.putIfAbsent(attachmentRows.get(i).row(), (Long) productAttachments.get(i)[1]);
+                }
+            }
+            if (!lostAttachments.isEmpty()) {
+                status.setRollbackOnly();
+                Long firstLost = lostAttachments.values().iterator().next();
+                for (ImportRow row : accepted) {
+                    Long attachmentId = lostAttachments.get(row.row());
+                    errors.add(new RowError(row.row(), row.product().getName(), attachmentId != null
+                            ? "El archivo adjunto " + attachmentId + " está asociado a otra entidad."
+                            : "No se pudo guardar el bloque: el archivo adjunto " + firstLost + " está asociado a otra entidad."));
+                }
+                return 0;
+            }
+        }
+        productSummaryService.refresh(idsByName.values());
+        return accepted.size();
+    }
+
+    private String checkReferences(ProductSaveDTO product, Set<String> takenNames, Set<Long> knownCategories, Set<Long> knownFeatures, Map<Long, Attachment> attachments, Set<Long> claimedAttachments) {
+        if (takenNames.contains(product.getName())) {
+            return "Producto con nombre '" + product.getName() + "' ya existe";
+        }
+        if (!knownCategories.contains(product.getCategoryId())) {
+            return "Categoría no encontrada: " + product.getCategoryId();
+        }
+        if (product.getFeatureIds() != null) {
+            for (Long featureId : product.getFeatureIds()) {
+                if (!knownFeatures.contains(featureId)) {
+                    return "Característica no encontrada: " + featureId;
+                }
+            }
+        }
+        if (product.getAttachments() != null) {
+            for (Long attachmentId : product.getAttachments()) {
+                Attachment attachment = attachments.get(attachmentId);
+                if (attachment == null) {
+                    return "Archivo adjunto no encontrado: " + attachmentId;
+                }
+                if (attachment.getProduct() != null || !claimedAttachments.add(attachmentId)) {
+                    return "El archivo adjunto " + attachmentId + " está asociado a otra entidad.";
+                }
+                try {
+                    attachmentService.validateFileTypeImages(attachment);
+                } catch (BadRequestException e) {
+                    return e.getMessage();
+                }
+            }
+        }
+        return null;
+    }
+
+    private String validate(ProductSaveDTO product) {
+        Set<ConstraintViolation<ProductSaveDTO>> violations = validator.validate(product);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+    }
+
+    private ProductSaveDTO toSaveDTO(List<String> record, Map<String, Integer> columns) {
+        ProductSaveDTO product = new ProductSaveDTO();
+        product.setName(emptyToNull(field(record, columns, "name")));
+        product.setDescription(emptyToNull(field(record, columns, "description")));
+        product.setStock(parse(field(record, columns, "stock"), "stock", Integer::valueOf));
+        product.setPrice(parse(field(record, columns, "price"), "price", Double::valueOf));
+        product.setRentType(parse(field(record, columns, "rentType"), "rentType", value -> RentType.valueOf(value.toUpperCase())));
+        product.setCategoryId(parse(field(record, columns, "categoryId"), "categoryId", Long::valueOf));
+        String featureIds = field(record, columns, "featureIds");
+        if (featureIds != null && !featureIds.isBlank()) {
+            List<Long> ids = new ArrayList<>();
+            for (String id : featureIds.split("\\|")) {
+                ids.add(parse(id, "featureIds", Long::valueOf));
+            }
+            product.setFeatureIds(ids);
+        }
+        return product;
+    }
+
+    private <T> T parse(String value, String column, Function<String, T> parser) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return parser.apply(value.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Valor inválido en la columna '" + column + "': " + value);
+        }
+    }
+
+    private String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        return index == null || index >= record.size() ? null : record.get(index);
+    }
+
+    private String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    // Lee un registro CSV (RFC 4180): admite campos entre comillas con comas, comillas dobles y saltos de línea
+    private List<String> readCsvRecord(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record ImportRow(int row, ProductSaveDTO product) {
+    }
+}
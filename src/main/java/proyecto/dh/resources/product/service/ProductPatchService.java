@@ -0,0 +1,120 @@
+package proyecto.dh.resources.product.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import proyecto.dh.exceptions.handler.BadRequestException;
+import proyecto.dh.resources.product.cache.CatalogVersion;
+import proyecto.dh.resources.product.cache.ProductCache;
+import proyecto.dh.resources.product.dto.ProductPatchDTO;
+import proyecto.dh.resources.product.dto.ProductPatchResultDTO;
+import proyecto.dh.resources.product.dto.ProductPatchResultDTO.Rejected;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Aplica cambios de precio y stock a muchos productos sin cargar las entidades.
+ * Cada bloque se envía como un lote de UPDATE parametrizados en su propia transacción,
+ * y el recuento de filas afectadas por sentencia indica qué IDs no existen.
+ */
+@Service
+public class ProductPatchService {
+
+    public static final int MAX_BATCH_SIZE = 10000;
+    private static final int CHUNK_SIZE = 500;
+    // COALESCE conserva el valor actual de los campos que no vienen en el cambio
+    private static final String PATCH_SQL = "UPDATE products SET price = COALESCE(?, price), stock = COALESCE(?, stock) WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ProductCache productCache;
+    private final CatalogVersion catalogVersion;
+    private final ProductSummaryService productSummaryService;
+
+    public ProductPatchService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, Validator validator, ProductCache productCache, CatalogVersion catalogVersion, ProductSummaryService productSummaryService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.productCache = productCache;
+        this.catalogVersion = catalogVersion;
+        this.productSummaryService = productSummaryService;
+    }
+
+    /**
+     * Aplica una lista de cambios parciales de precio y/o stock.
+     *
+     * @param patches Cambios a aplicar; los campos nulos no se modifican.
+     * @return IDs actualizados, IDs inexistentes y cambios rechazados por validación.
+     * @throws BadRequestException Si la lista está vacía o supera {@value #MAX_BATCH_SIZE} cambios.
+     */
+    public ProductPatchResultDTO patch(List<ProductPatchDTO> patches) throws BadRequestException {
+        if (patches == null || patches.isEmpty() || patches.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("La lista de cambios debe tener entre 1 y " + MAX_BATCH_SIZE + " elementos");
+        }
+
+        List<ProductPatchDTO> valid = new ArrayList<>(patches.size());
+        List<Rejected> rejected = new ArrayList<>();
+        for (int i = 0; i < patches.size(); i++) {
+            ProductPatchDTO patch = patches.get(i);
+            String error = validate(patch);
+            if (error != null) {
+                rejected.add(new Rejected(i + 1, patch == null ? null : patch.getId(), error));
+            } else {
+                valid.add(patch);
+            }
+        }
+        // Orden estable por ID: transacciones concurrentes bloquean las filas en el mismo orden
+        valid.sort(Comparator.comparing(ProductPatchDTO::getId));
+
+        List<Long> updated = new ArrayList<>();
+        List<Long> notFound = new ArrayList<>();
+        for (int from = 0; from < valid.size(); from += CHUNK_SIZE) {
+            List<ProductPatchDTO> chunk = valid.subList(from, Math.min(from + CHUNK_SIZE, valid.size()));
+            int[][] counts = transactionTemplate.execute(status -> {
+                int[][] result = jdbcTemplate.batchUpdate(PATCH_SQL, chunk, chunk.size(), (ps, patch) -> {
+                    ps.setObject(1, patch.getPrice());
+                    ps.setObject(2, patch.getStock());
+                    ps.setLong(3, patch.getId());
+                });
+                productSummaryService.refresh(chunk.stream().map(ProductPatchDTO::getId).collect(Collectors.toList()));
+                return result;
+            });
+            for (int i = 0; i < chunk.size(); i++) {
+                // Algunos drivers devuelven SUCCESS_NO_INFO (-2) en lugar del recuento exacto
+                if (counts[0][i] != 0) {
+                    updated.add(chunk.get(i).getId());
+                } else {
+                    notFound.add(chunk.get(i).getId());
+                }
+            }
+        }
+
+        if (!updated.isEmpty()) {
+            productCache.evictProducts(updated);
+            catalogVersion.bump();
+        }
+        return new ProductPatchResultDTO(updated.stream().distinct().collect(Collectors.toList()), notFound.stream().distinct().collect(Collectors.toList()), rejected);
+    }
+
+    private String validate(ProductPatchDTO patch) {
+        if (patch == null) {
+            return "Cambio vacío";
+        }
+        Set<ConstraintViolation<ProductPatchDTO>> violations = validator.validate(patch);
+        if (!violations.isEmpty()) {
+            return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+        }
+        if (patch.getPrice() == null && patch.getStock() == null) {
+            return "Se debe indicar precio o stock";
+        }
+        return null;
+    }
+}
@@ -1,58 +1,104 @@
 package proyecto.dh.resources.product.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import proyecto.dh.common.enums.ProductSort;
+import proyecto.dh.common.enums.SearchKind;
+import proyecto.dh.common.utils.TextFolder;
 import proyecto.dh.exceptions.handler.BadRequestException;
 import proyecto.dh.exceptions.handler.NotFoundException;
-import proyecto.dh.resources.attachment.dto.AttachmentDTO;
 import proyecto.dh.resources.attachment.entity.Attachment;
 import proyecto.dh.resources.attachment.service.AttachmentService;
 import proyecto.dh.resources.favorite.dto.ProductFavoriteSaveDTO;
 import proyecto.dh.resources.favorite.entity.ProductFavorite;
+import proyecto.dh.resources.favorite.mapper.FavoriteMapper;
 import proyecto.dh.resources.favorite.service.FavoriteService;
-import proyecto.dh.resources.product.dto.AvailabilityDTO;
-import proyecto.dh.resources.product.dto.CategoryFeatureDTO;
-import proyecto.dh.resources.product.dto.CategoryPolicyDTO;
+import proyecto.dh.resources.product.dto.ProductCacheStatsDTO;
+import proyecto.dh.resources.product.dto.ProductCardDTO;
 import proyecto.dh.resources.product.dto.ProductDTO;
+import proyecto.dh.resources.product.dto.ProductPageDTO;
 import proyecto.dh.resources.product.dto.ProductSaveDTO;
+import proyecto.dh.resources.product.dto.ProductSearchPageDTO;
 import proyecto.dh.resources.product.dto.ProductUpdateDTO;
+import proyecto.dh.resources.product.cache.CatalogVersion;
+import proyecto.dh.resources.product.cache.ProductCache;
+import proyecto.dh.resources.product.cache.SearchResultCache;
 import proyecto.dh.resources.product.entity.CategoryFeature;
 import proyecto.dh.resources.product.entity.Product;
 import proyecto.dh.resources.product.entity.ProductCategory;
+import proyecto.dh.resources.product.mapper.ProductMapper;
 import proyecto.dh.resources.product.repository.CategoryFeatureRepository;
 import proyecto.dh.resources.product.repository.ProductCategoryRepository;
 import proyecto.dh.resources.product.repository.ProductRepository;
 import proyecto.dh.resources.product.repository.ProductSearchRepository;
+import proyecto.dh.resources.product.search.FacetCounter;
+import proyecto.dh.resources.product.search.ProductSearchIndex;
+import proyecto.dh.resources.product.search.SearchAnalytics;
+import proyecto.dh.resources.reservation.service.AvailabilityService;
 
 @Service
 public class ProductService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_SUGGESTIONS = 20;
+    private static final String ALL_PRODUCTS_KEY = "all";
+
     private final ProductRepository productRepository;
     private final ProductCategoryRepository categoryRepository;
     private final CategoryFeatureRepository featureRepository;
     private final AttachmentService attachmentService;
     private final FavoriteService favoriteService;
-    private final ModelMapper modelMapper;
+    private final ProductMapper productMapper;
+    private final FavoriteMapper favoriteMapper;
     private final ProductSearchRepository productSearchRepository;
-
-    public ProductService(ProductRepository productRepository, ProductCategoryRepository categoryRepository, CategoryFeatureRepository featureRepository, AttachmentService attachmentService, FavoriteService favoriteService, ModelMapper modelMapper, ProductSearchRepository productSearchRepository) {
+    private final ProductCache productCache;
+    private final CatalogVersion catalogVersion;
+    private final ProductSummaryService productSummaryService;
+    private final ProductSearchIndex productSearchIndex;
+    private final AvailabilityService availabilityService;
+    private final SearchResultCache searchResultCache;
+    private final SearchAnalytics searchAnalytics;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ProductService(ProductRepository productRepository, ProductCategoryRepository categoryRepository, CategoryFeatureRepository featureRepository, AttachmentService attachmentService, FavoriteService favoriteService, ProductMapper productMapper, FavoriteMapper favoriteMapper, ProductSearchRepository productSearchRepository, ProductCache productCache, CatalogVersion catalogVersion, ProductSummaryService productSummaryService, ProductSearchIndex productSearchIndex, AvailabilityService availabilityService, SearchResultCache searchResultCache, SearchAnalytics searchAnalytics, PlatformTransactionManager transactionManager) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
         this.featureRepository = featureRepository;
         this.attachmentService = attachmentService;
         this.favoriteService = favoriteService;
-        this.modelMapper = modelMapper;
+        this.productMapper = productMapper;
+        this.favoriteMapper = favoriteMapper;
         this.productSearchRepository = productSearchRepository;
+        this.productCache = productCache;
+        this.catalogVersion = catalogVersion;
+        this.productSummaryService = productSummaryService;
+        this.productSearchIndex = productSearchIndex;
+        this.availabilityService = availabilityService;
+        this.searchResultCache = searchResultCache;
+        this.searchAnalytics = searchAnalytics;
+        // Los aciertos de caché no abren transacción; los fallos cargan dentro de esta, porque
+        // convertToDTO recorre colecciones perezosas (características, adjuntos)
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     /**
@@ -74,7 +120,11 @@ public class ProductService {
 
         setProductAttachments(product, productSaveDTO.getAttachments());
         Product savedProduct = productRepository.save(product);
-        return convertToDTO(savedProduct);
+        ProductDTO savedDTO = convertToDTO(savedProduct);
+        productSummaryService.store(savedDTO);
+        productCache.evictProduct(savedProduct.getId());
+        catalogVersion.bump();
+        return savedDTO;
     }
 
     /**
@@ -89,14 +139,18 @@ public class ProductService {
     @Transactional
     public ProductDTO updateProduct(Long id, ProductUpdateDTO productUpdateDTO) throws NotFoundException, BadRequestException {
         Product existingProduct = findByIdEntity(id);
-        modelMapper.map(productUpdateDTO, existingProduct);
+        productMapper.updateEntity(productUpdateDTO, existingProduct);
 
         updateCategory(existingProduct, productUpdateDTO.getCategoryId());
         updateFeatures(existingProduct, productUpdateDTO.getFeatureIds());
         updateAttachments(existingProduct, productUpdateDTO.getAttachmentsIds());
 
         Product updatedProduct = productRepository.save(existingProduct);
-        return convertToDTO(updatedProduct);
+        ProductDTO updatedDTO = convertToDTO(updatedProduct);
+        productSummaryService.store(updatedDTO);
+        productCache.evictProduct(id);
+        catalogVersion.bump();
+        return updatedDTO;
     }
 
     /**
@@ -109,42 +163,83 @@ public class ProductService {
     public void delete(Long id) throws NotFoundException {
         Product findProduct = findByIdEntity(id);
         attachmentService.deleteAttachmentsByEntities(findProduct.getAttachments());
+        productSummaryService.remove(id);
         productRepository.delete(findProduct);
+        productCache.evictProduct(id);
+        catalogVersion.bump();
     }
 
-    @Transactional(readOnly = true)
-    public AvailabilityDTO getProductAvailability(Long productId) throws NotFoundException {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new NotFoundException("Producto no encontrado"));
-
-        AvailabilityDTO availabilityDTO = new AvailabilityDTO();
-        availabilityDTO.setProductId(product.getId());
-
-        if (product.getStock() <= 1) {
-            List<AvailabilityDTO.DateRange> occupiedDateRanges = product.getReservations().stream()
-                    .map(reservation -> {
-                        AvailabilityDTO.DateRange dateRange = new AvailabilityDTO.DateRange();
-                        dateRange.setStartDate(reservation.getStartDate());
-                        dateRange.setEndDate(reservation.getEndDate());
-                        return dateRange;
-                    })
-                    .collect(Collectors.toList());
-
-            availabilityDTO.setOccupiedDates(occupiedDateRanges);
-        } else {
-            availabilityDTO.setOccupiedDates(new ArrayList<>());
+    /**
+     * Obtiene todos los productos.
+     *
+     * @return Lista de productos convertidos a DTO.
+     */
+    public List<ProductDTO> findAll() {
+        List<ProductDTO> cached = productCache.getList(ALL_PRODUCTS_KEY);
+        if (cached != null) {
+            return cached;
         }
+        List<ProductDTO> products = readOnlyTransaction.execute(status -> productSummaryService.findAll()
+                .orElseGet(() -> productRepository.findAll().stream().map(this::convertToDTO).collect(Collectors.toList())));
+        productCache.putList(ALL_PRODUCTS_KEY, products);
+        return products;
+    }
 
-        return availabilityDTO;
+    /**
+     * Obtiene una página de productos usando paginación por cursor (keyset).
+     * El costo de cada página es el mismo sin importar la profundidad, ya que se filtra
+     * a partir de la clave del último producto entregado en lugar de usar OFFSET.
+     *
+     * @param after Cursor opaco devuelto en la página anterior, o nulo para la primera página.
+     * @param limit Cantidad máxima de productos a devolver (1 a {@value #MAX_PAGE_SIZE}).
+     * @param sort  Criterio de orden: por ID, precio o nombre.
+     * @return La página de productos y el cursor de la siguiente página, si existe.
+     * @throws BadRequestException Si el límite o el cursor no son válidos.
+     */
+    public ProductPageDTO findPage(String after, int limit, ProductSort sort) throws BadRequestException {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("El límite debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+
+        String cacheKey = "page:" + sort + ":" + limit + ":" + (after == null ? "" : after);
+        ProductPageDTO cached = productCache.getList(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        String[] cursor = after == null || after.isBlank() ? null : decodeCursor(after, sort);
+        // Se pide un producto extra para saber si existe una página siguiente
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        ProductPageDTO page = readOnlyTransaction.execute(status -> {
+            List<Product> products = findKeysetSlice(cursor, sort, pageable);
+
+            String nextCursor = null;
+            if (products.size() > limit) {
+                products = products.subList(0, limit);
+                nextCursor = encodeCursor(products.get(limit - 1), sort);
+            }
+
+            List<ProductDTO> content = products.stream().map(this::convertToDTO).collect(Collectors.toList());
+            return new ProductPageDTO(content, nextCursor, limit);
+        });
+        productCache.putList(cacheKey, page);
+        return page;
     }
 
     /**
-     * Obtiene todos los productos.
+     * Obtiene las tarjetas de producto para los listados (id, nombre, precio, tipo de renta,
+     * categoría y primera imagen) con una única consulta de proyección.
      *
-     * @return Lista de productos convertidos a DTO.
+     * @param after ID del último producto de la página anterior, o nulo para la primera página.
+     * @param limit Cantidad máxima de tarjetas a devolver (1 a {@value #MAX_PAGE_SIZE}).
+     * @return Lista de tarjetas ordenadas por ID.
+     * @throws BadRequestException Si el límite no es válido.
      */
-    public List<ProductDTO> findAll() {
-        return productRepository.findAll().stream().map(this::convertToDTO).collect(Collectors.toList());
+    public List<ProductCardDTO> findCards(Long after, int limit) throws BadRequestException {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("El límite debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        return productRepository.findCardsAfter(after == null ? 0L : after, PageRequest.of(0, limit));
     }
 
     /**
@@ -155,31 +250,215 @@ public class ProductService {
      * @throws NotFoundException Si no se encuentra el producto.
      */
     public ProductDTO findById(Long id) throws NotFoundException {
-        Product productSearched = findByIdEntity(id);
-        return convertToDTO(productSearched);
+        ProductDTO cached = productCache.getProduct(id);
+        if (cached != null) {
+            return cached;
+        }
+        ProductDTO product = readOnlyTransaction.execute(status -> productSummaryService.findById(id)
+                .or(() -> productRepository.findDetailById(id).map(this::convertToDTO))
+                .orElse(null));
+        if (product == null) {
+            throw new NotFoundException("El producto no existe.");
+        }
+        productCache.putProduct(product);
+        return product;
+    }
+
+    /**
+     * Obtiene las estadísticas de aciertos, fallos y desalojos de la caché de productos.
+     *
+     * @return Estadísticas de la caché por ID, de listados y de resultados de búsqueda.
+     */
+    public ProductCacheStatsDTO getCacheStats() {
+        ProductCacheStatsDTO stats = productCache.stats();
+        stats.setSearches(searchResultCache.stats());
+        return stats;
     }
 
     /**
-     * Busca productos por texto y categoría.
+     * Busca productos por texto y categoría y, opcionalmente, disponibles en un rango de fechas.
      *
      * @param searchText Texto a buscar.
      * @param categoryId ID de la categoría a buscar.
+     * @param startDate  Inicio del rango en el que el producto debe tener una unidad libre cada día, opcional.
+     * @param endDate    Fin del rango (incluido), obligatorio si se indica el inicio.
      * @return Lista de productos encontrados convertidos a DTO.
-     * @throws NotFoundException Si no se encuentran productos.
+     * @throws NotFoundException   Si no se encuentran productos.
+     * @throws BadRequestException Si el rango de fechas no es válido.
      */
     @Transactional(readOnly = true)
-    public List<ProductDTO> searchProducts(String searchText, Long categoryId) throws NotFoundException {
-        return productSearchRepository.searchProducts(searchText, categoryId);
+    public List<ProductDTO> searchProducts(String searchText, Long categoryId, LocalDate startDate, LocalDate endDate) throws NotFoundException, BadRequestException {
+        long start = System.nanoTime();
+        List<ProductDTO> results = findSearchResults(searchText, categoryId, startDate, endDate);
+        searchAnalytics.record(SearchKind.SEARCH, searchText, results.size(), System.nanoTime() - start);
+        return results;
+    }
+
+    private List<ProductDTO> findSearchResults(String searchText, Long categoryId, LocalDate startDate, LocalDate endDate) throws NotFoundException, BadRequestException {
+        validateDateRange(startDate, endDate);
+        if (!productSearchIndex.isReady()) {
+            return productSearchRepository.searchProducts(searchText, categoryId, startDate, endDate);
+        }
+        List<Long> ids;
+        if (startDate == null) {
+            // Una cancelación no incrementa la versión del catálogo, así que solo se cachean las búsquedas sin fechas
+            SearchResultCache.Key key = searchResultCache.key("list", searchText == null ? "" : TextFolder.foldCompact(searchText), categoryId, 0, 0);
+            ids = searchResultCache.get(key);
+            if (ids == null) {
+                checkCategoryExists(categoryId);
+                ids = List.copyOf(productSearchIndex.search(searchText, categoryId));
+                searchResultCache.put(key, ids);
+            }
+        } else {
+            checkCategoryExists(categoryId);
+            ids = productSearchIndex.search(searchText, categoryId);
+            Set<Long> fullyBooked = availabilityService.findFullyBookedProductIds(ids, startDate, endDate);
+            ids.removeIf(fullyBooked::contains);
+        }
+        return findByIds(ids);
+    }
+
+    /**
+     * Busca productos por relevancia: todos los términos deben aparecer, y una coincidencia en el
+     * nombre pesa más que en la categoría, y esta más que en la descripción. Junto con la página
+     * devuelve las facetas (categoría, tipo de renta y rango de precio), contadas en el mismo
+     * recorrido de los resultados.
+     * Con {@code fuzzy}, las palabras que no aparecen en el catálogo se corrigen por las más parecidas.
+     * Si el índice en memoria todavía no está listo, pagina la búsqueda por subcadena ordenada por ID, sin corrección.
+     *
+     * @param searchText Texto a buscar.
+     * @param categoryId ID de la categoría por la que filtrar, opcional.
+     * @param startDate  Inicio del rango en el que el producto debe tener una unidad libre cada día, opcional.
+     * @param endDate    Fin del rango (incluido), obligatorio si se indica el inicio.
+     * @param page       Número de página, desde 0.
+     * @param size       Tamaño de la página (1 a {@value #MAX_PAGE_SIZE}).
+     * @param fuzzy      Si se toleran errores de tipeo.
+     * @return La página de productos, del más al menos relevante, con el total de coincidencias y las facetas.
+     * @throws BadRequestException Si la página, el tamaño o el rango de fechas no son válidos.
+     * @throws NotFoundException   Si la categoría no existe.
+     */
+    @Transactional(readOnly = true)
+    public ProductSearchPageDTO searchRanked(String searchText, Long categoryId, LocalDate startDate, LocalDate endDate, int page, int size, boolean fuzzy) throws BadRequestException, NotFoundException {
+        long start = System.nanoTime();
+        ProductSearchPageDTO results = findRankedPage(searchText, categoryId, startDate, endDate, page, size, fuzzy);
+        searchAnalytics.record(fuzzy ? SearchKind.FUZZY : SearchKind.RANKED, searchText, results.getTotalHits(), System.nanoTime() - start);
+        return results;
+    }
+
+    private ProductSearchPageDTO findRankedPage(String searchText, Long categoryId, LocalDate startDate, LocalDate endDate, int page, int size, boolean fuzzy) throws BadRequestException, NotFoundException {
+        if (page < 0) {
+            throw new BadRequestException("La página no puede ser negativa");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        validateDateRange(startDate, endDate);
+        if (!productSearchIndex.isReady()) {
+            checkCategoryExists(categoryId);
+            return searchPageFromDatabase(searchText, categoryId, startDate, endDate, page, size);
+        }
+        ProductSearchIndex.RankedHits hits;
+        if (startDate == null) {
+            SearchResultCache.Key key = searchResultCache.key(fuzzy ? "fuzzy" : "ranked", ProductSearchIndex.normalizeRankedQuery(searchText), categoryId, page, size);
+            hits = searchResultCache.get(key);
+            if (hits == null) {
+                checkCategoryExists(categoryId);
+                hits = productSearchIndex.searchRanked(searchText, categoryId, page, size, fuzzy, ids -> Collections.emptySet());
+                searchResultCache.put(key, hits);
+            }
+        } else {
+            checkCategoryExists(categoryId);
+            hits = productSearchIndex.searchRanked(searchText, categoryId, page, size, fuzzy, ids -> availabilityService.findFullyBookedProductIds(ids, startDate, endDate));
+        }
+        return new ProductSearchPageDTO(findByIds(hits.ids()), page, size, hits.totalHits(), hits.facets());
     }
 
     /**
-     * Obtiene sugerencias de nombres de productos basadas en un nombre parcial.
+     * Obtiene sugerencias de palabras del catálogo que empiezan con el texto parcial,
+     * ordenadas por la cantidad de productos que las contienen.
      *
-     * @param partialName Nombre parcial del producto.
-     * @return Lista de sugerencias de nombres de productos.
+     * @param partialName Texto parcial escrito por el usuario.
+     * @param limit       Cantidad máxima de sugerencias (1 a {@value #MAX_SUGGESTIONS}).
+     * @param fuzzy       Si se completan con palabras parecidas cuando no alcanzan las que empiezan igual
+     *                    (solo con el índice en memoria; la base de datos no se recorre buscando parecidos).
+     * @return Lista de sugerencias, escritas como en el catálogo (con mayúsculas y acentos).
+     * @throws BadRequestException Si el límite no es válido.
      */
-    public List<String> getSuggestions(String partialName) {
-        return productSearchRepository.findSuggestionsByPartialName(partialName);
+    public List<String> getSuggestions(String partialName, int limit, boolean fuzzy) throws BadRequestException {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new BadRequestException("El límite debe estar entre 1 y " + MAX_SUGGESTIONS);
+        }
+        long start = System.nanoTime();
+        List<String> suggestions;
+        if (productSearchIndex.isReady()) {
+            suggestions = productSearchIndex.suggest(partialName, limit, fuzzy);
+        } else {
+            suggestions = productSearchRepository.findSuggestionsByPartialName(partialName);
+            suggestions = suggestions.subList(0, Math.min(limit, suggestions.size()));
+        }
+        searchAnalytics.record(SearchKind.SUGGESTION, partialName, suggestions.size(), System.nanoTime() - start);
+        return suggestions;
+    }
+
+    // Se busca sin filtro de categoría para contar esa faceta en la misma consulta; el filtro se aplica en memoria
+    private ProductSearchPageDTO searchPageFromDatabase(String searchText, Long categoryId, LocalDate startDate, LocalDate endDate,
+                                                        int page, int size) throws NotFoundException {
+        FacetCounter facets = new FacetCounter();
+        List<ProductDTO> matches = new ArrayList<>();
+        for (ProductDTO product : productSearchRepository.searchProducts(searchText, null, startDate, endDate)) {
+            Long productCategoryId = product.getCategory() == null ? null : product.getCategory().getId();
+            facets.countCategory(productCategoryId, product.getCategory() == null ? null : product.getCategory().getName());
+            if (categoryId == null || categoryId.equals(productCategoryId)) {
+                facets.countFiltered(product.getRentType(), product.getPrice());
+                matches.add(product);
+            }
+        }
+        int from = (int) Math.min((long) page * size, matches.size());
+        int to = (int) Math.min((long) from + size, matches.size());
+        return new ProductSearchPageDTO(new ArrayList<>(matches.subList(from, to)), page, size, matches.size(), facets.toDTO());
+    }
+
+    // Un resultado cacheado ya pasó esta verificación con la misma versión del catálogo
+    private void checkCategoryExists(Long categoryId) throws NotFoundException {
+        if (categoryId != null && !categoryRepository.existsById(categoryId)) {
+            throw new NotFoundException("Categoría no encontrada");
+        }
+    }
+
+    private void validateDateRange(LocalDate startDate, LocalDate endDate) throws BadRequestException {
+        if ((startDate == null) != (endDate == null)) {
+            throw new BadRequestException("Se deben indicar la fecha de inicio y la de finalización");
+        }
+        if (startDate != null && endDate.isBefore(startDate)) {
+            throw new BadRequestException("La fecha de finalización no puede ser anterior a la fecha de inicio");
+        }
+    }
+
+    // Arma los DTO de una lista de IDs: primero la caché por ID y luego los resúmenes, en un solo lote
+    private List<ProductDTO> findByIds(List<Long> ids) {
+        List<ProductDTO> result = new ArrayList<>(ids.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            ProductDTO cached = productCache.getProduct(id);
+            result.add(cached);
+            if (cached == null) {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<Long, ProductDTO> loaded = new HashMap<>();
+            for (ProductDTO product : productSummaryService.findByIds(missing)) {
+                productCache.putProduct(product);
+                loaded.put(product.getId(), product);
+            }
+            for (int i = 0; i < ids.size(); i++) {
+                if (result.get(i) == null) {
+                    result.set(i, loaded.get(ids.get(i)));
+                }
+            }
+            result.removeIf(Objects::isNull);
+        }
+        return result;
     }
 
     private void setProductCategory(Product product, Long categoryId) throws NotFoundException {
@@ -210,7 +489,7 @@ public class ProductService {
 
     private void setProductFavorites(Product product, List<ProductFavoriteSaveDTO> favoriteSaveDtos) {
         // Se añade para manejar los valores nulos
-        Set<ProductFavorite> favoriteSet = Optional.ofNullable(favoriteSaveDtos).orElseGet(Collections::emptyList).stream().map(favoriteSaveDTO -> modelMapper.map(favoriteSaveDTO, ProductFavorite.class)).peek(favorite -> {
+        Set<ProductFavorite> favoriteSet = Optional.ofNullable(favoriteSaveDtos).orElseGet(Collections::emptyList).stream().map(favoriteMapper::toEntity).peek(favorite -> {
             if (favorite.getProduct() == null) {
                 favorite.setProduct(Set.of(product));
             } else {
@@ -248,37 +527,62 @@ public class ProductService {
     }
 
 
-    private Product findByIdEntity(Long id) throws NotFoundException {
-        return productRepository.findById(id).orElseThrow(() -> new NotFoundException("El producto no existe."));
-    }
-
-    public ProductDTO convertToDTO(Product product) {
-        ProductDTO productDTO = modelMapper.map(product, ProductDTO.class);
-
-        if (product.getCategory().getCategoryFeatures() != null) {
-            List<CategoryFeatureDTO> features = product.getCategory().getCategoryFeatures().stream().map(feature -> modelMapper.map(feature, CategoryFeatureDTO.class)).collect(Collectors.toList());
-            productDTO.getCategory().setFeatures(features);
+    private List<Product> findKeysetSlice(String[] cursor, ProductSort sort, Pageable pageable) {
+        if (cursor == null) {
+            return switch (sort) {
+                case ID -> productRepository.findAllByOrderByIdAsc(pageable);
+                case PRICE -> productRepository.findAllByOrderByPriceAscIdAsc(pageable);
+                case NAME -> productRepository.findAllByOrderByNameAsc(pageable);
+            };
         }
 
-        if (product.getCategory().getCategoryPolicies() != null) {
-            List<CategoryPolicyDTO> policies = product.getCategory().getCategoryPolicies().stream().map(policy -> modelMapper.map(policy, CategoryPolicyDTO.class)).collect(Collectors.toList());
-            productDTO.getCategory().setPolicies(policies);
-        }
+        Long lastId = Long.valueOf(cursor[0]);
+        return switch (sort) {
+            case ID -> productRepository.findByIdGreaterThanOrderByIdAsc(lastId, pageable);
+            case PRICE -> productRepository.findByPriceAfter(Double.valueOf(cursor[1]), lastId, pageable);
+            case NAME -> productRepository.findByNameGreaterThanOrderByNameAsc(cursor[1], pageable);
+        };
+    }
 
-        if (product.getAttachments() != null) {
-            List<AttachmentDTO> attachments = product.getAttachments().stream().map(attachment -> modelMapper.map(attachment, AttachmentDTO.class)).collect(Collectors.toList());
-            productDTO.setAttachments(attachments);
-        }
+    // El cursor tiene la forma "<id>:<valor de orden>" codificada en Base64 URL-safe
+    private String encodeCursor(Product last, ProductSort sort) {
+        String value = switch (sort) {
+            case ID -> "";
+            case PRICE -> String.valueOf(last.getPrice());
+            case NAME -> last.getName();
+        };
+        String raw = last.getId() + ":" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
 
-        if (product.getFeatures() != null) {
-            List<CategoryFeatureDTO> features = product.getFeatures().stream().map(feature -> modelMapper.map(feature, CategoryFeatureDTO.class)).collect(Collectors.toList());
-            productDTO.setFeatures(features);
+    // Los números se validan al decodificar, antes de abrir la transacción de la página;
+    // NumberFormatException es un IllegalArgumentException
+    private String[] decodeCursor(String cursor, ProductSort sort) throws BadRequestException {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 2);
+            if (parts.length != 2) {
+                throw new BadRequestException("Cursor inválido");
+            }
+            Long.valueOf(parts[0]);
+            if (sort == ProductSort.PRICE) {
+                Double.valueOf(parts[1]);
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Cursor inválido");
         }
+    }
 
-        return productDTO;
+    private Product findByIdEntity(Long id) throws NotFoundException {
+        return productRepository.findById(id).orElseThrow(() -> new NotFoundException("El producto no existe."));
+    }
+
+    public ProductDTO convertToDTO(Product product) {
+        return productMapper.toDTO(product);
     }
 
     public Product convertToEntity(ProductSaveDTO productSaveDTO) {
-        return modelMapper.map(productSaveDTO, Product.class);
+        return productMapper.toEntity(productSaveDTO);
     }
 }
@@ -0,0 +1,45 @@
+package proyecto.dh.resources.product.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import proyecto.dh.resources.product.repository.ProductSummaryRepository;
+
+import java.util.List;
+
+/**
+ * Genera al arrancar los resúmenes que faltan o que tienen un formato anterior,
+ * y a partir de ahí habilita las lecturas desde product_summary.
+ */
+@Component
+@Order(1)
+public class ProductSummaryBackfill implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSummaryBackfill.class);
+    private static final int CHUNK_SIZE = 500;
+
+    private final ProductSummaryService productSummaryService;
+    private final ProductSummaryRepository summaryRepository;
+
+    public ProductSummaryBackfill(ProductSummaryService productSummaryService, ProductSummaryRepository summaryRepository) {
+        this.productSummaryService = productSummaryService;
+        this.summaryRepository = summaryRepository;
+    }
+
+    @Override
+    public void run(String... args) {
+        try {
+            List<Long> staleIds = summaryRepository.findStaleProductIds(ProductSummaryService.PAYLOAD_VERSION);
+            // Una transacción por bloque para no acumular todo el catálogo en el contexto de persistencia
+            for (int from = 0; from < staleIds.size(); from += CHUNK_SIZE) {
+                productSummaryService.refresh(staleIds.subList(from, Math.min(from + CHUNK_SIZE, staleIds.size())));
+            }
+            productSummaryService.markReady();
+            logger.info("Resúmenes de productos generados: {}", staleIds.size());
+        } catch (RuntimeException e) {
+            logger.error("No se pudieron generar los resúmenes de productos; las lecturas usarán las tablas normalizadas", e);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package proyecto.dh.resources.product.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import proyecto.dh.resources.product.dto.ProductDTO;
+import proyecto.dh.resources.product.entity.Product;
+import proyecto.dh.resources.product.entity.ProductSummary;
+import proyecto.dh.resources.product.mapper.ProductMapper;
+import proyecto.dh.resources.product.repository.ProductRepository;
+import proyecto.dh.resources.product.repository.ProductSummaryRepository;
+import proyecto.dh.resources.product.search.ProductSearchIndex;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Mantiene la tabla product_summary con el ProductDTO público serializado de cada producto.
+ * Las escrituras de productos, categorías y reservas la actualizan dentro de su misma transacción,
+ * así que las lecturas públicas se resuelven con una sola fila por producto y sin joins.
+ */
+@Service
+public class ProductSummaryService {
+
+    public static final int PAYLOAD_VERSION = 1;
+    private static final int CHUNK_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ProductSummaryRepository summaryRepository;
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ObjectMapper objectMapper;
+    private final ProductSearchIndex productSearchIndex;
+
+    // Hasta que termina la generación inicial las lecturas usan las tablas normalizadas
+    private volatile boolean ready;
+
+    public ProductSummaryService(ProductSummaryRepository summaryRepository, ProductRepository productRepository, ProductMapper productMapper, ObjectMapper objectMapper, ProductSearchIndex productSearchIndex) {
+        this.summaryRepository = summaryRepository;
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.objectMapper = objectMapper;
+        this.productSearchIndex = productSearchIndex;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        this.ready = true;
+    }
+
+    /**
+     * Busca el resumen de un producto.
+     *
+     * @param productId ID del producto.
+     * @return El DTO precalculado, o vacío si no existe o los resúmenes aún no están listos.
+     */
+    public Optional<ProductDTO> findById(Long productId) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        return summaryRepository.findPayloadById(productId).map(this::read);
+    }
+
+    /**
+     * Obtiene todos los resúmenes ordenados por ID.
+     *
+     * @return Los DTO precalculados, o vacío si los resúmenes aún no están listos.
+     */
+    public Optional<List<ProductDTO>> findAll() {
+        if (!ready) {
+            return Optional.empty();
+        }
+        return Optional.of(summaryRepository.findAllPayloads().stream().map(this::read).collect(Collectors.toList()));
+    }
+
+    /**
+     * Busca los resúmenes de varios productos.
+     *
+     * @param productIds IDs de los productos.
+     * @return Los DTO encontrados, en el orden de los IDs recibidos.
+     */
+    public List<ProductDTO> findByIds(List<Long> productIds) {
+        Map<Long, ProductDTO> found = new HashMap<>();
+        for (int from = 0; from < productIds.size(); from += CHUNK_SIZE) {
+            for (ProductSummary summary : summaryRepository.findAllById(productIds.subList(from, Math.min(from + CHUNK_SIZE, productIds.size())))) {
+                found.put(summary.getProductId(), read(summary.getPayload()));
+            }
+        }
+        List<ProductDTO> result = new ArrayList<>(found.size());
+        for (Long id : productIds) {
+            ProductDTO product = found.get(id);
+            if (product != null) {
+                result.add(product);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Guarda el resumen de un producto ya convertido a DTO.
+     *
+     * @param product DTO del producto, con su ID asignado.
+     */
+    @Transactional
+    public void store(ProductDTO product) {
+        ProductSummary summary = summaryRepository.findById(product.getId()).orElse(null);
+        write(summary, product);
+    }
+
+    /**
+     * Regenera el resumen de un producto a partir de la entidad.
+     *
+     * @param product Producto gestionado en la transacción actual.
+     */
+    @Transactional
+    public void refresh(Product product) {
+        store(productMapper.toDTO(product));
+    }
+
+    /**
+     * Regenera los resúmenes de varios productos, por bloques y con una consulta por tipo.
+     * Los IDs que ya no existen se eliminan del resumen.
+     *
+     * @param productIds IDs de los productos modificados.
+     */
+    @Transactional
+    public void refresh(Collection<Long> productIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(productIds));
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            Map<Long, ProductSummary> existing = summaryRepository.findAllById(chunk).stream()
+                    .collect(Collectors.toMap(ProductSummary::getProductId, Function.identity()));
+            Set<Long> missing = new HashSet<>(chunk);
+            for (Product product : productRepository.findByIdIn(chunk)) {
+                missing.remove(product.getId());
+                write(existing.get(product.getId()), productMapper.toDTO(product));
+            }
+            if (!missing.isEmpty()) {
+                summaryRepository.deleteByProductIds(missing);
+                missing.forEach(productSearchIndex::removeAfterCommit);
+            }
+        }
+    }
+
+    /**
+     * Regenera los resúmenes que embeben datos de una categoría: los productos que pertenecen
+     * a ella y los que usan alguna de sus características.
+     *
+     * @param categoryId ID de la categoría modificada.
+     * @param featureIds IDs de las características de la categoría antes y después del cambio.
+     */
+    @Transactional
+    public void refreshCategory(Long categoryId, Collection<Long> featureIds) {
+        Set<Long> productIds = new LinkedHashSet<>(productRepository.findIdsByCategoryId(categoryId));
+        if (featureIds != null && !featureIds.isEmpty()) {
+            productIds.addAll(productRepository.findIdsByFeatureIds(featureIds));
+        }
+        refresh(productIds);
+    }
+
+    /**
+     * Elimina el resumen de un producto.
+     *
+     * @param productId ID del producto eliminado.
+     */
+    @Transactional
+    public void remove(Long productId) {
+        summaryRepository.deleteByProductIds(List.of(productId));
+        productSearchIndex.removeAfterCommit(productId);
+    }
+
+    // Todas las escrituras del resumen pasan por aquí, así que también mantienen el índice de búsqueda
+    private void write(ProductSummary summary, ProductDTO product) {
+        String payload = serialize(product);
+        productSearchIndex.indexAfterCommit(product);
+        if (summary == null) {
+            entityManager.persist(new ProductSummary(product.getId(), payload, PAYLOAD_VERSION, LocalDateTime.now()));
+        } else {
+            summary.setPayload(payload);
+            summary.setPayloadVersion(PAYLOAD_VERSION);
+            summary.setUpdatedAt(LocalDateTime.now());
+        }
+    }
+
+    private String serialize(ProductDTO product) {
+        try {
+            return objectMapper.writeValueAsString(product);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el producto " + product.getId(), e);
+        }
+    }
+
+    private ProductDTO read(String payload) {
+        try {
+            return objectMapper.readValue(payload, ProductDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Resumen de producto inválido", e);
+        }
+    }
+}
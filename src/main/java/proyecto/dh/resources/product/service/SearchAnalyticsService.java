@@ -0,0 +1,60 @@
+package proyecto.dh.resources.product.service;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import proyecto.dh.common.enums.SearchKind;
+import proyecto.dh.exceptions.handler.BadRequestException;
+import proyecto.dh.resources.product.dto.SearchAnalyticsDTO;
+import proyecto.dh.resources.product.dto.SearchQueryStatDTO;
+import proyecto.dh.resources.product.repository.SearchQueryLogRepository;
+import proyecto.dh.resources.product.search.SearchAnalytics;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reportes de la analítica de búsquedas registrada por {@link SearchAnalytics}.
+ */
+@Service
+public class SearchAnalyticsService {
+
+    public static final int MAX_DAYS = 90;
+    public static final int MAX_LIMIT = 100;
+
+    private final SearchQueryLogRepository searchQueryLogRepository;
+    private final SearchAnalytics searchAnalytics;
+
+    public SearchAnalyticsService(SearchQueryLogRepository searchQueryLogRepository, SearchAnalytics searchAnalytics) {
+        this.searchQueryLogRepository = searchQueryLogRepository;
+        this.searchAnalytics = searchAnalytics;
+    }
+
+    /**
+     * Obtiene los textos más buscados y los más buscados sin resultados.
+     *
+     * @param days  Cantidad de días hacia atrás a considerar (1 a {@value #MAX_DAYS}).
+     * @param limit Cantidad máxima de textos por lista (1 a {@value #MAX_LIMIT}).
+     * @param kind  Tipo de búsqueda, o nulo para todas menos las sugerencias.
+     * @return El reporte con las dos listas y el estado del buffer.
+     * @throws BadRequestException Si los días o el límite no son válidos.
+     */
+    @Transactional(readOnly = true)
+    public SearchAnalyticsDTO getReport(int days, int limit, SearchKind kind) throws BadRequestException {
+        if (days < 1 || days > MAX_DAYS) {
+            throw new BadRequestException("Los días deben estar entre 1 y " + MAX_DAYS);
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("El límite debe estar entre 1 y " + MAX_LIMIT);
+        }
+
+        // Las sugerencias se registran en cada tecla y taparían a las búsquedas si se mezclaran
+        Set<SearchKind> kinds = kind == null ? EnumSet.complementOf(EnumSet.of(SearchKind.SUGGESTION)) : EnumSet.of(kind);
+        LocalDateTime since = LocalDateTime.now().minusDays(days);
+        List<SearchQueryStatDTO> top = searchQueryLogRepository.findTopQueries(since, kinds, PageRequest.of(0, limit));
+        List<SearchQueryStatDTO> zeroResults = searchQueryLogRepository.findTopZeroResultQueries(since, kinds, PageRequest.of(0, limit));
+        return new SearchAnalyticsDTO(top, zeroResults, searchAnalytics.pending(), searchAnalytics.dropped());
+    }
+}
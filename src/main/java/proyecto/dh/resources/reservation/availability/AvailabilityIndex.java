@@ -0,0 +1,143 @@
+package proyecto.dh.resources.reservation.availability;
+
+import org.springframework.stereotype.Component;
+import proyecto.dh.common.utils.AfterCommit;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Ocupación por día de cada producto, construida a partir de las reservas vigentes que terminan hoy o después.
+ * Responde si quedan unidades para un rango de fechas sin consultar la base de datos y se mantiene al día
+ * con las reservas creadas y canceladas al confirmarse su transacción.
+ * <p>
+ * Cada reserva se registra por su ID, así que aplicar dos veces el mismo cambio (por ejemplo, uno confirmado
+ * mientras se reconstruía el índice) no la cuenta dos veces.
+ */
+@Component
+public class AvailabilityIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, OccupancyTree> products = new HashMap<>();
+    private final Map<Long, ReservedRange> reservations = new HashMap<>();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Vuelve a cargar las reservas vigentes. Mientras dura la carga las consultas esperan el bloqueo, y las
+     * reservas confirmadas en ese lapso se suman al terminar, así que ninguna se pierde.
+     *
+     * @param loader Proveedor de las reservas vigentes.
+     */
+    public void rebuild(Supplier<Collection<ReservedRange>> loader) {
+        lock.writeLock().lock();
+        try {
+            // Sin índice, AvailabilityService consulta product_daily_occupancy
+            ready = false;
+            products.clear();
+            reservations.clear();
+            for (ReservedRange reservation : loader.get()) {
+                add(reservation);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Suma una reserva cuando se confirma la transacción actual.
+     */
+    public void addAfterCommit(ReservedRange reservation) {
+        AfterCommit.run(lock.writeLock(), () -> add(reservation));
+    }
+
+    /**
+     * Quita una reserva cancelada cuando se confirma la transacción actual.
+     */
+    public void removeAfterCommit(Long reservationId) {
+        AfterCommit.run(lock.writeLock(), () -> {
+            ReservedRange reservation = reservations.remove(reservationId);
+            if (reservation != null) {
+                OccupancyTree tree = products.get(reservation.productId());
+                tree.add(reservation.startDate(), reservation.endDate(), -1);
+            }
+        });
+    }
+
+    /**
+     * Indica si quedan al menos {@code units} unidades libres todos los días del rango.
+     *
+     * @param capacity Unidades del producto.
+     */
+    public boolean canBook(Long productId, LocalDate startDate, LocalDate endDate, int units, int capacity) {
+        return maxReserved(productId, startDate, endDate) + units <= capacity;
+    }
+
+    /**
+     * Mayor cantidad de unidades reservadas en un mismo día del rango (ambos extremos incluidos).
+     */
+    public int maxReserved(Long productId, LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            OccupancyTree tree = products.get(productId);
+            return tree == null ? 0 : tree.max(startDate, endDate);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ocupación del producto en tramos de días con la misma cantidad de unidades reservadas.
+     *
+     * @param endDate Último día (incluido), o nulo para llegar hasta el último día reservado.
+     */
+    public List<OccupancyTree.DayRun> occupancy(Long productId, LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            OccupancyTree tree = products.get(productId);
+            if (tree == null) {
+                return endDate == null ? Collections.emptyList() : new OccupancyTree().runs(startDate, endDate);
+            }
+            LocalDate last = endDate != null ? endDate : tree.lastDay();
+            return last == null ? Collections.emptyList() : tree.runs(startDate, last);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ocupación de varios productos en el mismo rango, con una sola toma del bloqueo.
+     *
+     * @return Tramos de cada producto, cubriendo todo el rango.
+     */
+    public Map<Long, List<OccupancyTree.DayRun>> occupancy(Collection<Long> productIds, LocalDate startDate, LocalDate endDate) {
+        Map<Long, List<OccupancyTree.DayRun>> result = new HashMap<>();
+        OccupancyTree empty = new OccupancyTree();
+        lock.readLock().lock();
+        try {
+            for (Long productId : productIds) {
+                result.put(productId, products.getOrDefault(productId, empty).runs(startDate, endDate));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private void add(ReservedRange reservation) {
+        if (reservations.putIfAbsent(reservation.reservationId(), reservation) == null) {
+            products.computeIfAbsent(reservation.productId(), id -> new OccupancyTree())
+                    .add(reservation.startDate(), reservation.endDate(), 1);
+        }
+    }
+}
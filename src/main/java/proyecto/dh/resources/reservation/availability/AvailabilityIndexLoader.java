@@ -0,0 +1,39 @@
+package proyecto.dh.resources.reservation.availability;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import proyecto.dh.resources.reservation.repository.ReservationRepository;
+
+import java.time.LocalDate;
+
+/**
+ * Construye el índice de disponibilidad al arrancar con las reservas vigentes que no terminaron.
+ * Mientras no esté listo, la disponibilidad se lee de product_daily_occupancy.
+ */
+@Component
+@Order(3)
+public class AvailabilityIndexLoader implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityIndexLoader.class);
+
+    private final AvailabilityIndex availabilityIndex;
+    private final ReservationRepository reservationRepository;
+
+    public AvailabilityIndexLoader(AvailabilityIndex availabilityIndex, ReservationRepository reservationRepository) {
+        this.availabilityIndex = availabilityIndex;
+        this.reservationRepository = reservationRepository;
+    }
+
+    @Override
+    public void run(String... args) {
+        try {
+            availabilityIndex.rebuild(() -> reservationRepository.findActiveRanges(LocalDate.now()));
+            logger.info("Índice de disponibilidad construido");
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo construir el índice de disponibilidad; la disponibilidad se leerá de la base de datos", e);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package proyecto.dh.resources.reservation.availability;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unidades reservadas por día de un producto, como árbol de segmentos disperso sobre los días desde 1970.
+ * Sumar o restar una reserva y consultar el máximo de un rango cuestan O(log D) sin importar cuántas
+ * reservas haya, y los nodos se crean solo donde hay reservas.
+ * <p>
+ * Las sumas pendientes quedan en el nodo que cubre el rango completo y no se propagan a los hijos,
+ * así que las consultas no modifican el árbol. No es seguro para hilos: {@link AvailabilityIndex} lo
+ * protege con su bloqueo.
+ */
+public final class OccupancyTree {
+
+    // 2^17 días: desde 1970 hasta 2328
+    private static final int DAYS = 1 << 17;
+    private static final int LAST_DAY = DAYS - 1;
+
+    private final Node root = new Node();
+    private LocalDate lastDay;
+
+    /**
+     * Suma {@code delta} unidades reservadas a cada día del rango (ambos extremos incluidos).
+     */
+    public void add(LocalDate startDate, LocalDate endDate, int delta) {
+        int from = day(startDate);
+        int to = day(endDate);
+        if (from > to) {
+            return;
+        }
+        add(root, 0, LAST_DAY, from, to, delta);
+        if (delta > 0 && (lastDay == null || endDate.isAfter(lastDay))) {
+            lastDay = endDate;
+        }
+    }
+
+    /**
+     * Mayor cantidad de unidades reservadas en un mismo día del rango (ambos extremos incluidos).
+     */
+    public int max(LocalDate startDate, LocalDate endDate) {
+        int from = day(startDate);
+        int to = day(endDate);
+        return from > to ? 0 : max(root, 0, LAST_DAY, from, to);
+    }
+
+    /**
+     * Último día que alguna vez tuvo unidades reservadas, o nulo si nunca se reservó.
+     */
+    public LocalDate lastDay() {
+        return lastDay;
+    }
+
+    /**
+     * Divide el rango en tramos consecutivos de días con la misma cantidad de unidades reservadas.
+     * Cuesta O(k log D), con k la cantidad de tramos.
+     */
+    public List<DayRun> runs(LocalDate startDate, LocalDate endDate) {
+        List<DayRun> runs = new ArrayList<>();
+        int from = day(startDate);
+        int to = day(endDate);
+        if (from <= to) {
+            collect(root, 0, LAST_DAY, from, to, 0, runs);
+        }
+        return runs;
+    }
+
+    private static void add(Node node, int low, int high, int from, int to, int delta) {
+        if (from <= low && high <= to) {
+            node.add += delta;
+            node.max += delta;
+            return;
+        }
+        int middle = (low + high) >>> 1;
+        if (from <= middle) {
+            if (node.left == null) {
+                node.left = new Node();
+            }
+            add(node.left, low, middle, from, to, delta);
+        }
+        if (to > middle) {
+            if (node.right == null) {
+                node.right = new Node();
+            }
+            add(node.right, middle + 1, high, from, to, delta);
+        }
+        node.max = Math.max(max(node.left), max(node.right)) + node.add;
+    }
+
+    private static int max(Node node, int low, int high, int from, int to) {
+        if (node == null) {
+            return 0;
+        }
+        if (from <= low && high <= to) {
+            return node.max;
+        }
+        int middle = (low + high) >>> 1;
+        int max = Integer.MIN_VALUE;
+        if (from <= middle) {
+            max = max(node.left, low, middle, from, to);
+        }
+        if (to > middle) {
+            max = Math.max(max, max(node.right, middle + 1, high, from, to));
+        }
+        return max + node.add;
+    }
+
+    private static void collect(Node node, int low, int high, int from, int to, int inherited, List<DayRun> runs) {
+        // Sin hijos, todo el segmento tiene el mismo valor
+        if (node == null || (node.left == null && node.right == null)) {
+            append(runs, Math.max(low, from), Math.min(high, to), inherited + (node == null ? 0 : node.add));
+            return;
+        }
+        int middle = (low + high) >>> 1;
+        if (from <= middle) {
+            collect(node.left, low, middle, from, to, inherited + node.add, runs);
+        }
+        if (to > middle) {
+            collect(node.right, middle + 1, high, from, to, inherited + node.add, runs);
+        }
+    }
+
+    private static void append(List<DayRun> runs, int from, int to, int reserved) {
+        if (!runs.isEmpty()) {
+            DayRun last = runs.get(runs.size() - 1);
+            if (last.reserved() == reserved) {
+                runs.set(runs.size() - 1, new DayRun(last.startDate(), LocalDate.ofEpochDay(to), reserved));
+                return;
+            }
+        }
+        runs.add(new DayRun(LocalDate.ofEpochDay(from), LocalDate.ofEpochDay(to), reserved));
+    }
+
+    private static int max(Node node) {
+        return node == null ? 0 : node.max;
+    }
+
+    private static int day(LocalDate date) {
+        return (int) Math.max(0, Math.min(LAST_DAY, date.toEpochDay()));
+    }
+
+    private static final class Node {
+        // Suma aplicada a todo el segmento y máximo del segmento con esa suma incluida
+        int add;
+        int max;
+        Node left;
+        Node right;
+    }
+
+    /**
+     * Tramo de días consecutivos (ambos extremos incluidos) con la misma cantidad de unidades reservadas.
+     */
+    public record DayRun(LocalDate startDate, LocalDate endDate, int reserved) {
+
+        public int days() {
+            return (int) (endDate.toEpochDay() - startDate.toEpochDay() + 1);
+        }
+    }
+}
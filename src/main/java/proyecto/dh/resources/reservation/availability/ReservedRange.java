@@ -0,0 +1,9 @@
+package proyecto.dh.resources.reservation.availability;
+
+import java.time.LocalDate;
+
+/**
+ * Fechas de una reserva vigente (sin cancelar), sin cargar la entidad ni sus relaciones.
+ */
+public record ReservedRange(Long reservationId, Long productId, LocalDate startDate, LocalDate endDate) {
+}
@@ -0,0 +1,50 @@
+package proyecto.dh.resources.reservation.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Unidades reservadas de un producto en un día. Se mantiene desde ReservationService al crear y cancelar
+ * reservas, con sumas y restas en la base, nunca recalculando a partir de las reservas.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "product_daily_occupancy")
+@IdClass(ProductDailyOccupancy.Key.class)
+public class ProductDailyOccupancy {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Id
+    @Column(name = "reserved_date")
+    private LocalDate reservedDate;
+
+    @Column(nullable = false)
+    private Integer units;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long productId;
+        private LocalDate reservedDate;
+    }
+}
@@ -0,0 +1,41 @@
+package proyecto.dh.resources.reservation.mapper;
+
+import org.springframework.stereotype.Component;
+import proyecto.dh.resources.reservation.dto.ReservationDTO;
+import proyecto.dh.resources.reservation.dto.ReservationSaveDTO;
+import proyecto.dh.resources.reservation.entity.Reservation;
+
+/**
+ * Conversión entre {@link Reservation} y sus DTOs.
+ * El usuario y el producto de la reserva los asigna el servicio.
+ */
+@Component
+public class ReservationMapper {
+
+    public ReservationDTO toDTO(Reservation reservation) {
+        ReservationDTO reservationDTO = new ReservationDTO();
+        reservationDTO.setId(reservation.getId());
+        if (reservation.getUser() != null) {
+            reservationDTO.setUserId(reservation.getUser().getId());
+        }
+        if (reservation.getProduct() != null) {
+            reservationDTO.setProductId(reservation.getProduct().getId());
+        }
+        reservationDTO.setStartDate(reservation.getStartDate());
+        reservationDTO.setEndDate(reservation.getEndDate());
+        reservationDTO.setCreationDateTime(reservation.getCreationDateTime());
+        reservationDTO.setAmount(reservation.getAmount());
+        reservationDTO.setCancelled(reservation.isCancelled());
+        reservationDTO.setPayment(reservation.getPayment());
+        return reservationDTO;
+    }
+
+    public Reservation toEntity(ReservationSaveDTO reservationSaveDTO) {
+        Reservation reservation = new Reservation();
+        reservation.setStartDate(reservationSaveDTO.getStartDate());
+        reservation.setEndDate(reservationSaveDTO.getEndDate());
+        reservation.setCreationDateTime(reservationSaveDTO.getCreationDateTime());
+        reservation.setPayment(reservationSaveDTO.getPayment());
+        return reservation;
+    }
+}
@@ -0,0 +1,61 @@
+package proyecto.dh.resources.reservation.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import proyecto.dh.resources.reservation.entity.ProductDailyOccupancy;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductDailyOccupancyRepository extends JpaRepository<ProductDailyOccupancy, ProductDailyOccupancy.Key> {
+
+    // Crea con cero unidades los días del rango que todavía no tienen reservas
+    String ENSURE_DAYS_SQL = "INSERT INTO product_daily_occupancy (product_id, reserved_date, units) " +
+            "SELECT :productId, CAST(d.day AS DATE), 0 FROM generate_series(CAST(:startDate AS DATE), CAST(:endDate AS DATE), INTERVAL '1 day') AS d(day) " +
+            "ON CONFLICT (product_id, reserved_date) DO NOTHING";
+
+    // Suma una unidad a cada día del rango que todavía tiene lugar. Los días se bloquean en orden de fecha (el mismo
+    // para todas las transacciones, así que dos reservas solapadas no se bloquean mutuamente) y, si otra transacción
+    // modificó un día mientras se esperaba, la condición se vuelve a evaluar con el valor confirmado: un día nunca
+    // supera la capacidad aunque haya reservas simultáneas.
+    String CLAIM_SQL = "UPDATE product_daily_occupancy o SET units = o.units + 1 " +
+            "FROM (SELECT reserved_date FROM product_daily_occupancy WHERE product_id = :productId " +
+            "AND reserved_date BETWEEN :startDate AND :endDate ORDER BY reserved_date FOR UPDATE) locked " +
+            "WHERE o.product_id = :productId AND o.reserved_date = locked.reserved_date AND o.units < :capacity";
+
+    @Modifying
+    @Query(value = ENSURE_DAYS_SQL, nativeQuery = true)
+    void ensureDays(@Param("productId") Long productId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Ocupa una unidad en cada día del rango que tenga menos de {@code capacity} unidades reservadas.
+     *
+     * @return Días ocupados; si es menor que la cantidad de días del rango, la transacción debe deshacerse.
+     */
+    @Modifying
+    @Query(value = CLAIM_SQL, nativeQuery = true)
+    int claim(@Param("productId") Long productId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, @Param("capacity") int capacity);
+
+    @Modifying
+    @Query("UPDATE ProductDailyOccupancy o SET o.units = o.units - 1 " +
+            "WHERE o.productId = :productId AND o.reservedDate BETWEEN :startDate AND :endDate")
+    void release(@Param("productId") Long productId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Productos sin ninguna unidad libre algún día del rango; recorre solo esos días con la clave primaria
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :productIds AND (p.stock <= 0 OR EXISTS (SELECT 1 FROM ProductDailyOccupancy o " +
+            "WHERE o.productId = p.id AND o.reservedDate BETWEEN :startDate AND :endDate AND o.units >= p.stock))")
+    List<Long> findFullyBookedProductIds(@Param("productIds") Collection<Long> productIds, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    List<ProductDailyOccupancy> findByProductIdAndReservedDateBetween(Long productId, LocalDate startDate, LocalDate endDate);
+
+    // Disponibilidad por lotes: el stock de cada producto junto con sus días ocupados del rango, en una sola
+    // consulta; un producto sin días ocupados vuelve una fila con fecha nula
+    @Query("SELECT p.id, p.stock, o.reservedDate, o.units FROM Product p LEFT JOIN ProductDailyOccupancy o " +
+            "ON o.productId = p.id AND o.reservedDate BETWEEN :startDate AND :endDate WHERE p.id IN :productIds")
+    List<Object[]> findByProductIds(@Param("productIds") Collection<Long> productIds, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
@@ -1,13 +1,22 @@
 package proyecto.dh.resources.reservation.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import proyecto.dh.resources.reservation.availability.ReservedRange;
 import proyecto.dh.resources.reservation.entity.Reservation;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
     List<Reservation> findByProductId(Long productId);
     List<Reservation> findByUserId(Long userId);
+
+    // Reservas vigentes que terminan en la fecha indicada o después, para construir el índice de disponibilidad
+    @Query("SELECT new proyecto.dh.resources.reservation.availability.ReservedRange(r.id, r.product.id, r.startDate, r.endDate) " +
+            "FROM Reservation r WHERE r.cancelled = false AND r.endDate >= :since")
+    List<ReservedRange> findActiveRanges(@Param("since") LocalDate since);
 }
@@ -0,0 +1,267 @@
+package proyecto.dh.resources.reservation.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import proyecto.dh.exceptions.handler.BadRequestException;
+import proyecto.dh.exceptions.handler.NotFoundException;
+import proyecto.dh.resources.product.dto.AvailabilityCalendarDTO;
+import proyecto.dh.resources.product.dto.AvailabilityDTO;
+import proyecto.dh.resources.product.entity.Product;
+import proyecto.dh.resources.product.repository.ProductRepository;
+import proyecto.dh.resources.reservation.availability.AvailabilityIndex;
+import proyecto.dh.resources.reservation.availability.OccupancyTree;
+import proyecto.dh.resources.reservation.availability.ReservedRange;
+import proyecto.dh.resources.reservation.entity.ProductDailyOccupancy;
+import proyecto.dh.resources.reservation.repository.ProductDailyOccupancyRepository;
+
+/**
+ * Disponibilidad de productos por fecha: las unidades libres de un día son el stock del producto menos las
+ * reservas vigentes que incluyen ese día. Las unidades reservadas por día se guardan en product_daily_occupancy,
+ * que se mantiene con sumas y restas al crear y cancelar reservas, y se leen de {@link AvailabilityIndex}
+ * o, mientras el índice no esté listo, de esa tabla.
+ */
+@Service
+public class AvailabilityService {
+
+    public static final int MAX_CALENDAR_DAYS = 366;
+    public static final int MAX_BATCH_PRODUCTS = 100;
+    private static final int ID_CHUNK_SIZE = 500;
+
+    // Límite del árbol de ocupación; alcanza para pedir "todas las reservas futuras" a la base
+    private static final LocalDate LAST_DATE = LocalDate.of(2328, 1, 1);
+
+    private final AvailabilityIndex availabilityIndex;
+    private final ProductDailyOccupancyRepository occupancyRepository;
+    private final ProductRepository productRepository;
+
+    public AvailabilityService(AvailabilityIndex availabilityIndex, ProductDailyOccupancyRepository occupancyRepository, ProductRepository productRepository) {
+        this.availabilityIndex = availabilityIndex;
+        this.occupancyRepository = occupancyRepository;
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Ocupa una unidad del producto en cada día de la reserva, o falla si algún día ya no tiene lugar.
+     * La ocupación se reclama con una actualización condicional por día en la base, así que dos reservas
+     * simultáneas por la última unidad no pueden pasar las dos. Si falla, la transacción actual debe
+     * deshacerse para descartar los días que sí se llegaron a ocupar.
+     *
+     * @param product     Producto ya cargado; su stock es la cantidad de unidades.
+     * @param reservation Reserva ya guardada.
+     * @throws BadRequestException Si algún día del rango ya tiene reservadas todas las unidades.
+     */
+    public void reserve(Product product, ReservedRange reservation) throws BadRequestException {
+        Long productId = product.getId();
+        LocalDate startDate = reservation.startDate();
+        LocalDate endDate = reservation.endDate();
+        // Si el índice ya sabe que no hay lugar, se rechaza sin escribir en la base
+        if (availabilityIndex.isReady() && !availabilityIndex.canBook(productId, startDate, endDate, 1, product.getStock())) {
+            throw unavailable(product, startDate, endDate);
+        }
+
+        occupancyRepository.ensureDays(productId, startDate, endDate);
+        int claimed = occupancyRepository.claim(productId, startDate, endDate, product.getStock());
+        if (claimed < ChronoUnit.DAYS.between(startDate, endDate) + 1) {
+            throw unavailable(product, startDate, endDate);
+        }
+        availabilityIndex.addAfterCommit(reservation);
+    }
+
+    /**
+     * Libera la unidad que ocupaba una reserva cancelada en cada uno de sus días.
+     */
+    public void release(ReservedRange reservation) {
+        occupancyRepository.release(reservation.productId(), reservation.startDate(), reservation.endDate());
+        availabilityIndex.removeAfterCommit(reservation.reservationId());
+    }
+
+    /**
+     * Filtra los productos que no tienen ninguna unidad libre algún día del rango: los que tienen stock cero
+     * o algún día con tantas unidades reservadas como stock. Se consulta por lotes de IDs.
+     *
+     * @return IDs de los productos sin lugar en el rango.
+     */
+    @Transactional(readOnly = true)
+    public Set<Long> findFullyBookedProductIds(Collection<Long> productIds, LocalDate startDate, LocalDate endDate) {
+        List<Long> ids = new ArrayList<>(productIds);
+        Set<Long> fullyBooked = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()));
+            if (!availabilityIndex.isReady()) {
+                fullyBooked.addAll(occupancyRepository.findFullyBookedProductIds(chunk, startDate, endDate));
+                continue;
+            }
+            for (Object[] row : productRepository.findStocksByIdIn(chunk)) {
+                Long productId = (Long) row[0];
+                int stock = (Integer) row[1];
+                if (stock <= 0 || !availabilityIndex.canBook(productId, startDate, endDate, 1, stock)) {
+                    fullyBooked.add(productId);
+                }
+            }
+        }
+        return fullyBooked;
+    }
+
+    /**
+     * Obtiene los rangos de fechas, desde hoy, en los que todas las unidades del producto están reservadas.
+     *
+     * @throws NotFoundException Si el producto no existe.
+     */
+    @Transactional(readOnly = true)
+    public AvailabilityDTO getProductAvailability(Long productId) throws NotFoundException {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new NotFoundException("Producto no encontrado"));
+
+        LocalDate today = LocalDate.now();
+        List<OccupancyTree.DayRun> runs;
+        if (availabilityIndex.isReady()) {
+            runs = availabilityIndex.occupancy(productId, today, null);
+        } else {
+            OccupancyTree tree = loadOccupancy(productId, today, LAST_DATE);
+            runs = tree.lastDay() == null ? List.of() : tree.runs(today, tree.lastDay());
+        }
+
+        int capacity = product.getStock();
+        List<AvailabilityDTO.DateRange> occupiedDates = new ArrayList<>();
+        for (OccupancyTree.DayRun run : runs) {
+            if (run.reserved() < capacity) {
+                continue;
+            }
+            // Tramos contiguos con distinta ocupación pero todos completos se muestran como uno
+            AvailabilityDTO.DateRange last = occupiedDates.isEmpty() ? null : occupiedDates.get(occupiedDates.size() - 1);
+            if (last != null && last.getEndDate().plusDays(1).equals(run.startDate())) {
+                last.setEndDate(run.endDate());
+            } else {
+                AvailabilityDTO.DateRange dateRange = new AvailabilityDTO.DateRange();
+                dateRange.setStartDate(run.startDate());
+                dateRange.setEndDate(run.endDate());
+                occupiedDates.add(dateRange);
+            }
+        }
+
+        AvailabilityDTO availabilityDTO = new AvailabilityDTO();
+        availabilityDTO.setProductId(product.getId());
+        availabilityDTO.setOccupiedDates(occupiedDates);
+        return availabilityDTO;
+    }
+
+    /**
+     * Obtiene las unidades libres por día del producto entre dos fechas, codificadas por tramos.
+     *
+     * @param from Primer día (incluido).
+     * @param to   Último día (incluido); el rango no puede superar {@link #MAX_CALENDAR_DAYS} días.
+     * @throws NotFoundException   Si el producto no existe.
+     * @throws BadRequestException Si el rango no es válido.
+     */
+    @Transactional(readOnly = true)
+    public AvailabilityCalendarDTO getAvailabilityCalendar(Long productId, LocalDate from, LocalDate to) throws NotFoundException, BadRequestException {
+        validateWindow(from, to);
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new NotFoundException("Producto no encontrado"));
+
+        List<OccupancyTree.DayRun> runs = availabilityIndex.isReady()
+                ? availabilityIndex.occupancy(productId, from, to)
+                : loadOccupancy(productId, from, to).runs(from, to);
+        return toCalendar(productId, product.getStock(), from, to, runs);
+    }
+
+    /**
+     * Obtiene las unidades libres por día de varios productos en el mismo rango, con una sola consulta:
+     * el stock de los productos si el índice está listo, o el stock junto con los días ocupados del rango si no.
+     *
+     * @param productIds IDs de los productos; como máximo {@link #MAX_BATCH_PRODUCTS}. Los que no existen se omiten.
+     * @return Disponibilidad de cada producto, por ID y en el orden pedido.
+     * @throws BadRequestException Si no hay IDs, son demasiados o el rango no es válido.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, AvailabilityCalendarDTO> getAvailabilityCalendars(Collection<Long> productIds, LocalDate from, LocalDate to) throws BadRequestException {
+        Set<Long> ids = new LinkedHashSet<>(productIds);
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_PRODUCTS) {
+            throw new BadRequestException("Se deben indicar entre 1 y " + MAX_BATCH_PRODUCTS + " productos");
+        }
+        validateWindow(from, to);
+
+        Map<Long, Integer> capacities = new HashMap<>();
+        Map<Long, List<OccupancyTree.DayRun>> runs;
+        if (availabilityIndex.isReady()) {
+            for (Object[] row : productRepository.findStocksByIdIn(ids)) {
+                capacities.put((Long) row[0], (Integer) row[1]);
+            }
+            runs = availabilityIndex.occupancy(capacities.keySet(), from, to);
+        } else {
+            Map<Long, OccupancyTree> trees = new HashMap<>();
+            for (Object[] row : occupancyRepository.findByProductIds(ids, from, to)) {
+                Long productId = (Long) row[0];
+                capacities.put(productId, (Integer) row[1]);
+                OccupancyTree tree = trees.computeIfAbsent(productId, id -> new OccupancyTree());
+                if (row[2] != null) {
+                    tree.add((LocalDate) row[2], (LocalDate) row[2], (Integer) row[3]);
+                }
+            }
+            runs = new HashMap<>();
+            for (Map.Entry<Long, OccupancyTree> tree : trees.entrySet()) {
+                runs.put(tree.getKey(), tree.getValue().runs(from, to));
+            }
+        }
+
+        Map<Long, AvailabilityCalendarDTO> calendars = new LinkedHashMap<>();
+        for (Long productId : ids) {
+            Integer capacity = capacities.get(productId);
+            if (capacity != null) {
+                calendars.put(productId, toCalendar(productId, capacity, from, to, runs.get(productId)));
+            }
+        }
+        return calendars;
+    }
+
+    private static void validateWindow(LocalDate from, LocalDate to) throws BadRequestException {
+        if (to.isBefore(from)) {
+            throw new BadRequestException("La fecha final no puede ser anterior a la inicial");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_CALENDAR_DAYS) {
+            throw new BadRequestException("El rango de fechas no puede superar los " + MAX_CALENDAR_DAYS + " días");
+        }
+    }
+
+    // Pasa de unidades reservadas a libres; los tramos que quedan iguales al descontar del total se unen
+    private static AvailabilityCalendarDTO toCalendar(Long productId, int capacity, LocalDate from, LocalDate to, List<OccupancyTree.DayRun> runs) {
+        List<int[]> encoded = new ArrayList<>(runs.size());
+        for (OccupancyTree.DayRun run : runs) {
+            int free = Math.max(capacity - run.reserved(), 0);
+            int[] last = encoded.isEmpty() ? null : encoded.get(encoded.size() - 1);
+            if (last != null && last[1] == free) {
+                last[0] += run.days();
+            } else {
+                encoded.add(new int[]{run.days(), free});
+            }
+        }
+        return new AvailabilityCalendarDTO(productId, from, to, capacity, encoded);
+    }
+
+    private static BadRequestException unavailable(Product product, LocalDate startDate, LocalDate endDate) {
+        return new BadRequestException("El producto " + product.getName() + " no está disponible entre " + startDate + " y " + endDate);
+    }
+
+    private OccupancyTree loadOccupancy(Long productId, LocalDate startDate, LocalDate endDate) {
+        OccupancyTree tree = new OccupancyTree();
+        for (ProductDailyOccupancy day : occupancyRepository.findByProductIdAndReservedDateBetween(productId, startDate, endDate)) {
+            if (day.getUnits() > 0) {
+                tree.add(day.getReservedDate(), day.getReservedDate(), day.getUnits());
+            }
+        }
+        return tree;
+    }
+}
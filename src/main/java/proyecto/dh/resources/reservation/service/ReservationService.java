@@ -8,7 +8,6 @@ import java.util.stream.Collectors;
 
 import javax.validation.Valid;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
@@ -19,9 +18,11 @@ import proyecto.dh.exceptions.handler.BadRequestException;
 import proyecto.dh.exceptions.handler.NotFoundException;
 import proyecto.dh.resources.product.entity.Product;
 import proyecto.dh.resources.product.repository.ProductRepository;
+import proyecto.dh.resources.reservation.availability.ReservedRange;
 import proyecto.dh.resources.reservation.dto.ReservationDTO;
 import proyecto.dh.resources.reservation.dto.ReservationSaveDTO;
 import proyecto.dh.resources.reservation.entity.Reservation;
+import proyecto.dh.resources.reservation.mapper.ReservationMapper;
 import proyecto.dh.resources.reservation.repository.ReservationRepository;
 import proyecto.dh.resources.users.entity.User;
 import proyecto.dh.resources.users.repository.UserRepository;
@@ -33,13 +34,15 @@ public class ReservationService {
     private final ReservationRepository reservationRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
-    private final ModelMapper modelMapper;
+    private final ReservationMapper reservationMapper;
+    private final AvailabilityService availabilityService;
 
-    public ReservationService(ReservationRepository reservationRepository, ProductRepository productRepository, UserRepository userRepository, ModelMapper modelMapper) {
+    public ReservationService(ReservationRepository reservationRepository, ProductRepository productRepository, UserRepository userRepository, ReservationMapper reservationMapper, AvailabilityService availabilityService) {
         this.reservationRepository = reservationRepository;
         this.productRepository = productRepository;
         this.userRepository = userRepository;
-        this.modelMapper = modelMapper;
+        this.reservationMapper = reservationMapper;
+        this.availabilityService = availabilityService;
     }
 
     // ============================================================
@@ -53,9 +56,9 @@ public class ReservationService {
      * @param currentUser The details of the current user.
      * @return The created reservation as a DTO.
      * @throws NotFoundException If the user is not found.
-     * @throws BadRequestException If the request is invalid.
+     * @throws BadRequestException If the request is invalid or the product is fully booked on any of the dates.
      */
-    @Transactional
+    @Transactional(rollbackOn = BadRequestException.class)
     public ReservationDTO create(@Valid ReservationSaveDTO reservationSaveDTO, UserDetails currentUser) throws NotFoundException, BadRequestException {
         User user = userRepository.findByEmail(currentUser.getUsername())
                 .orElseThrow(() -> new NotFoundException("Usuario no encontrado"));
@@ -76,6 +79,11 @@ public class ReservationService {
             throw new BadRequestException("La fecha de finalización no puede ser anterior a la fecha de inicio");
         }
 
+        // El stock es la cantidad de unidades del producto; las reservas no lo modifican
+        if (product.getStock() <= 0) {
+            throw new BadRequestException("El producto " + product.getName() + " no tiene stock disponible");
+        }
+
         Reservation reservation = convertToEntity(reservationSaveDTO);
         reservation.setUser(user);
         reservation.setProduct(product);
@@ -85,9 +93,9 @@ public class ReservationService {
         long daysBetween = ChronoUnit.DAYS.between(startDate, endDate);
         reservation.setAmount(product.getPrice() * daysBetween);
 
-        syncReservationWithProduct(reservation, reservationSaveDTO.getProductId());
-
         Reservation savedReservation = reservationRepository.save(reservation);
+        // Reclama un lugar en cada día del rango; si algún día está completo, rollbackOn deshace también la reserva guardada
+        availabilityService.reserve(product, new ReservedRange(savedReservation.getId(), product.getId(), startDate, endDate));
 
         return convertToDTO(savedReservation);
     }
@@ -160,8 +168,15 @@ public class ReservationService {
 
         checkReservationPermissions(reservation, currentUser);
 
+        // Cancelar dos veces no debe liberar dos veces las mismas unidades
+        if (reservation.isCancelled()) {
+            return;
+        }
+
         reservation.setCancelled(true);
         reservationRepository.save(reservation);
+        availabilityService.release(new ReservedRange(reservation.getId(), reservation.getProduct().getId(),
+                reservation.getStartDate(), reservation.getEndDate()));
     }
 
     // ============================================================
@@ -181,33 +196,11 @@ public class ReservationService {
         return user.getRole().equals(Role.ROLE_ADMIN);
     }
 
-    private void syncReservationWithProduct(Reservation reservation, Long productId) throws NotFoundException, BadRequestException {
-        Product product = validateProductAvailability(productId);
-
-        reservation.setProduct(product);
-        product.getReservations().add(reservation);
-        product.setStock(product.getStock() - 1);
-    }
-
-    private Product validateProductAvailability(Long productId) throws NotFoundException, BadRequestException {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new NotFoundException("El producto no existe"));
-
-        if (product.getStock() <= 0) {
-            throw new BadRequestException("El producto " + product.getName() + " no tiene stock disponible");
-        }
-
-        return product;
-    }
-
     public Reservation convertToEntity(ReservationSaveDTO reservationSaveDTO){
-        return modelMapper.map(reservationSaveDTO, Reservation.class);
+        return reservationMapper.toEntity(reservationSaveDTO);
     }
 
     private ReservationDTO convertToDTO(Reservation reservation) {
-        ReservationDTO reservationDTO = modelMapper.map(reservation, ReservationDTO.class);
-        reservationDTO.setProductId(reservation.getProduct().getId());
-        reservationDTO.setUserId(reservation.getUser().getId());
-        return reservationDTO;
+        return reservationMapper.toDTO(reservation);
     }
 }
@@ -0,0 +1,92 @@
+package proyecto.dh.resources.users.mapper;
+
+import org.springframework.stereotype.Component;
+import proyecto.dh.resources.favorite.dto.ProductFavoriteDTO;
+import proyecto.dh.resources.favorite.entity.ProductFavorite;
+import proyecto.dh.resources.favorite.mapper.FavoriteMapper;
+import proyecto.dh.resources.reservation.dto.ReservationDTO;
+import proyecto.dh.resources.reservation.entity.Reservation;
+import proyecto.dh.resources.reservation.mapper.ReservationMapper;
+import proyecto.dh.resources.users.dto.UserAddressDTO;
+import proyecto.dh.resources.users.dto.UserCreateDTO;
+import proyecto.dh.resources.users.dto.UserDTO;
+import proyecto.dh.resources.users.entity.User;
+import proyecto.dh.resources.users.entity.UserAddress;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conversión entre {@link User}, {@link UserAddress} y sus DTOs.
+ * La contraseña nunca se expone en {@link UserDTO}.
+ */
+@Component
+public class UserMapper {
+
+    private final FavoriteMapper favoriteMapper;
+    private final ReservationMapper reservationMapper;
+
+    public UserMapper(FavoriteMapper favoriteMapper, ReservationMapper reservationMapper) {
+        this.favoriteMapper = favoriteMapper;
+        this.reservationMapper = reservationMapper;
+    }
+
+    public UserDTO toDTO(User user) {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(user.getId());
+        userDTO.setFirstName(user.getFirstName());
+        userDTO.setLastName(user.getLastName());
+        userDTO.setPhone(user.getPhone());
+        userDTO.setEmail(user.getEmail());
+        userDTO.setRole(user.getRole());
+        if (user.getAddress() != null) {
+            userDTO.setAddress(toAddressDTO(user.getAddress()));
+        }
+        if (user.getFavorites() != null) {
+            List<ProductFavoriteDTO> favorites = new ArrayList<>(user.getFavorites().size());
+            for (ProductFavorite favorite : user.getFavorites()) {
+                favorites.add(favoriteMapper.toDTO(favorite));
+            }
+            userDTO.setFavorites(favorites);
+        }
+        if (user.getReservations() != null) {
+            List<ReservationDTO> reservations = new ArrayList<>(user.getReservations().size());
+            for (Reservation reservation : user.getReservations()) {
+                reservations.add(reservationMapper.toDTO(reservation));
+            }
+            userDTO.setReservations(reservations);
+        }
+        return userDTO;
+    }
+
+    public User toEntity(UserCreateDTO userCreateDTO) {
+        User user = new User();
+        user.setFirstName(userCreateDTO.getFirstName());
+        user.setLastName(userCreateDTO.getLastName());
+        user.setPhone(userCreateDTO.getPhone());
+        user.setEmail(userCreateDTO.getEmail());
+        user.setPassword(userCreateDTO.getPassword());
+        user.setRole(userCreateDTO.getRole());
+        return user;
+    }
+
+    public UserAddressDTO toAddressDTO(UserAddress address) {
+        UserAddressDTO addressDTO = new UserAddressDTO();
+        addressDTO.setStreet(address.getStreet());
+        addressDTO.setCity(address.getCity());
+        addressDTO.setState(address.getState());
+        addressDTO.setZip(address.getZip());
+        addressDTO.setCountry(address.getCountry());
+        return addressDTO;
+    }
+
+    public UserAddress toAddressEntity(UserAddressDTO addressDTO) {
+        UserAddress address = new UserAddress();
+        address.setStreet(addressDTO.getStreet());
+        address.setCity(addressDTO.getCity());
+        address.setState(addressDTO.getState());
+        address.setZip(addressDTO.getZip());
+        address.setCountry(addressDTO.getCountry());
+        return address;
+    }
+}
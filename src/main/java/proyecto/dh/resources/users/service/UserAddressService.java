@@ -1,6 +1,5 @@
 package proyecto.dh.resources.users.service;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -8,6 +7,7 @@ import proyecto.dh.exceptions.handler.BadRequestException;
 import proyecto.dh.resources.users.dto.UserAddressDTO;
 import proyecto.dh.resources.users.entity.User;
 import proyecto.dh.resources.users.entity.UserAddress;
+import proyecto.dh.resources.users.mapper.UserMapper;
 import proyecto.dh.resources.users.repository.UserAddressRepository;
 import proyecto.dh.resources.users.repository.UserRepository;
 
@@ -15,12 +15,12 @@ import proyecto.dh.resources.users.repository.UserRepository;
 public class UserAddressService {
     private final UserRepository userRepository;
     private final UserAddressRepository userAddressRepository;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
 
-    public UserAddressService(UserRepository userRepository, UserAddressRepository userAddressRepository, ModelMapper modelMapper) {
+    public UserAddressService(UserRepository userRepository, UserAddressRepository userAddressRepository, UserMapper userMapper) {
         this.userRepository = userRepository;
         this.userAddressRepository = userAddressRepository;
-        this.modelMapper = modelMapper;
+        this.userMapper = userMapper;
     }
 
     @Transactional
@@ -59,10 +59,10 @@ public class UserAddressService {
     }
 
     private UserAddressDTO convertToDTO(UserAddress address) {
-        return modelMapper.map(address, UserAddressDTO.class);
+        return userMapper.toAddressDTO(address);
     }
 
     private UserAddress convertToEntity(UserAddressDTO addressDTO) {
-        return modelMapper.map(addressDTO, UserAddress.class);
+        return userMapper.toAddressEntity(addressDTO);
     }
 }
@@ -1,6 +1,5 @@
 package proyecto.dh.resources.users.service;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -9,12 +8,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import proyecto.dh.common.enums.Role;
 import proyecto.dh.exceptions.handler.BadRequestException;
-import proyecto.dh.resources.users.dto.UserAddressDTO;
 import proyecto.dh.resources.users.dto.UserCreateDTO;
 import proyecto.dh.resources.users.dto.UserDTO;
 import proyecto.dh.resources.users.dto.UserUpdateDTO;
 import proyecto.dh.resources.users.entity.User;
 import proyecto.dh.resources.users.entity.UserAddress;
+import proyecto.dh.resources.users.mapper.UserMapper;
 import proyecto.dh.resources.users.repository.UserRepository;
 
 import java.util.List;
@@ -29,7 +28,7 @@ public class UserService {
     private UserAddressService userAddressService;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private UserMapper userMapper;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
@@ -38,7 +37,7 @@ public class UserService {
         if (userRepository.existsByEmail(userObject.getEmail())) {
             throw new BadRequestException("Usuario con email '" + userObject.getEmail() + "' ya existe");
         }
-        User userEntity = modelMapper.map(userObject, User.class);
+        User userEntity = userMapper.toEntity(userObject);
         userEntity.setRole(Role.ROLE_USER); // Set default role here
         userEntity.setPassword(passwordEncoder.encode(userObject.getPassword()));
         User createdUser = userRepository.save(userEntity);
@@ -77,7 +76,7 @@ public class UserService {
         }
 
         if (userObject.getAddress() != null) {
-            UserAddress addressEntity = modelMapper.map(userObject.getAddress(), UserAddress.class);
+            UserAddress addressEntity = userMapper.toAddressEntity(userObject.getAddress());
             userToEdit.setAddress(addressEntity);
         }
 
@@ -187,12 +186,7 @@ public class UserService {
     }
 
     private UserDTO convertToDTO(User user) {
-        UserDTO userDTO = modelMapper.map(user, UserDTO.class);
-        if (user.getAddress() != null) {
-            UserAddressDTO addressDTO = modelMapper.map(user.getAddress(), UserAddressDTO.class);
-            userDTO.setAddress(addressDTO);
-        }
-        return userDTO;
+        return userMapper.toDTO(user);
     }
 
 }
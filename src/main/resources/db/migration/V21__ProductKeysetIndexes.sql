@@ -0,0 +1,3 @@
+-- Índice para la paginación por cursor ordenada por precio (price, id).
+-- El orden por id usa la PK y el orden por nombre usa uc_products_name.
+CREATE INDEX IF NOT EXISTS idx_products_price_id ON products (price, id);
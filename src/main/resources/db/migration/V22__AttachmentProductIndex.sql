@@ -0,0 +1,2 @@
+-- Índice para obtener el primer adjunto de cada producto (tarjetas de listado) y sus adjuntos.
+CREATE INDEX IF NOT EXISTS idx_attachments_product_id ON attachments (product_id, id);
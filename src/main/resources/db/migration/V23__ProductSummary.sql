@@ -0,0 +1,11 @@
+-- Modelo de lectura desnormalizado: el JSON público de cada producto precalculado.
+-- Se mantiene de forma incremental desde los servicios; las filas faltantes se generan al arrancar.
+CREATE TABLE IF NOT EXISTS product_summary
+(
+    product_id      BIGINT                      NOT NULL,
+    payload         TEXT                        NOT NULL,
+    payload_version INTEGER                     NOT NULL,
+    updated_at      TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_product_summary PRIMARY KEY (product_id),
+    CONSTRAINT fk_product_summary_on_product FOREIGN KEY (product_id) REFERENCES products (id) ON DELETE CASCADE
+);
@@ -0,0 +1,18 @@
+-- Búsqueda por subcadena indexable: unaccent() no es IMMUTABLE y no puede usarse en un índice,
+-- así que se envuelve en una función inmutable con el diccionario fijado explícitamente.
+CREATE EXTENSION IF NOT EXISTS unaccent;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE OR REPLACE FUNCTION f_unaccent(text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+AS
+$$
+SELECT public.unaccent('public.unaccent'::regdictionary, $1)
+$$;
+
+-- Índices de trigramas sobre las mismas expresiones que usa ProductSearchRepository,
+-- para que LIKE '%texto%' se resuelva con un Bitmap Index Scan en lugar de un Seq Scan.
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm ON products USING gin (f_unaccent(lower(name)) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_products_description_trgm ON products USING gin (f_unaccent(lower(description)) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_categories_name_trgm ON categories USING gin (f_unaccent(lower(name)) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_products_category_id ON products (category_id);
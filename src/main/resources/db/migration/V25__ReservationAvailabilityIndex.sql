@@ -0,0 +1,3 @@
+-- Índice para saber si un producto tiene reservas vigentes que se solapan con un rango de fechas
+-- (filtro de disponibilidad de la búsqueda). Las reservas canceladas no ocupan fechas.
+CREATE INDEX IF NOT EXISTS idx_reservations_product_dates ON reservations (product_id, start_date, end_date) WHERE cancelled = false;
@@ -0,0 +1,15 @@
+-- Registro de las búsquedas públicas para analítica (texto plegado, resultados y latencia).
+-- Se escribe por lotes desde un hilo en segundo plano; los reportes filtran por fecha.
+CREATE TABLE IF NOT EXISTS search_queries
+(
+    id             BIGSERIAL                   NOT NULL,
+    query_text     VARCHAR(255)                NOT NULL,
+    kind           VARCHAR(20)                 NOT NULL,
+    result_count   INTEGER                     NOT NULL,
+    latency_micros BIGINT                      NOT NULL,
+    searched_at    TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_search_queries PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_search_queries_searched_at ON search_queries (searched_at);
+CREATE INDEX IF NOT EXISTS idx_search_queries_zero_results ON search_queries (searched_at) WHERE result_count = 0;
@@ -0,0 +1,32 @@
+-- Unidades reservadas por producto y día. Cada reserva vigente suma una unidad a cada día de su rango
+-- (ambos extremos incluidos) y la cancelación la resta, así que las unidades libres de un día son
+-- products.stock - units sin recorrer las reservas.
+CREATE TABLE IF NOT EXISTS product_daily_occupancy
+(
+    product_id    BIGINT  NOT NULL,
+    reserved_date DATE    NOT NULL,
+    units         INTEGER NOT NULL,
+    CONSTRAINT pk_product_daily_occupancy PRIMARY KEY (product_id, reserved_date),
+    CONSTRAINT fk_product_daily_occupancy_product FOREIGN KEY (product_id) REFERENCES products (id) ON DELETE CASCADE
+);
+
+-- Ocupación de las reservas vigentes que todavía no terminaron; los días pasados no se consultan
+INSERT INTO product_daily_occupancy (product_id, reserved_date, units)
+SELECT r.product_id, d.day::date, COUNT(*)
+FROM reservations r
+         CROSS JOIN LATERAL generate_series(GREATEST(r.start_date, CURRENT_DATE), r.end_date, INTERVAL '1 day') AS d(day)
+WHERE r.cancelled = false
+  AND r.end_date >= CURRENT_DATE
+GROUP BY r.product_id, d.day::date;
+
+-- Hasta ahora cada reserva descontaba una unidad del stock. Se devuelven las de las reservas vigentes que
+-- no terminaron, que pasan a contarse en la tabla anterior; el resto de los descuentos (reservas pasadas o
+-- canceladas) ya pudo haberse corregido a mano y no se toca.
+UPDATE products p
+SET stock = p.stock + a.active
+FROM (SELECT product_id, COUNT(*) AS active
+      FROM reservations
+      WHERE cancelled = false
+        AND end_date >= CURRENT_DATE
+      GROUP BY product_id) a
+WHERE a.product_id = p.id;
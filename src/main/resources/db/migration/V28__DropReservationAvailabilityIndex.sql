@@ -0,0 +1,4 @@
+-- La disponibilidad por fecha se lee de product_daily_occupancy (V27): ninguna consulta usa ya este índice
+-- de V25 y solo encarecía cada alta y cancelación de reservas. La carga del índice de disponibilidad al
+-- arrancar recorre las reservas vigentes una sola vez y no lo necesita.
+DROP INDEX IF EXISTS idx_reservations_product_dates;
@@ -0,0 +1,136 @@
+package proyecto.dh.benchmark;
+
+import org.modelmapper.Condition;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.modelmapper.spi.MappingContext;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import proyecto.dh.common.enums.RentType;
+import proyecto.dh.resources.attachment.dto.AttachmentDTO;
+import proyecto.dh.resources.attachment.entity.Attachment;
+import proyecto.dh.resources.attachment.mapper.AttachmentMapper;
+import proyecto.dh.resources.product.dto.CategoryFeatureDTO;
+import proyecto.dh.resources.product.dto.CategoryPolicyDTO;
+import proyecto.dh.resources.product.dto.ProductDTO;
+import proyecto.dh.resources.product.entity.CategoryFeature;
+import proyecto.dh.resources.product.entity.CategoryPolicy;
+import proyecto.dh.resources.product.entity.Product;
+import proyecto.dh.resources.product.entity.ProductCategory;
+import proyecto.dh.resources.product.mapper.CategoryMapper;
+import proyecto.dh.resources.product.mapper.ProductMapper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compara la conversión de un listado de 50 productos con ModelMapper (configuración anterior
+ * de ModelMapperConfig) contra {@link ProductMapper}.
+ * Ejecutar el método {@code main} desde el IDE con el classpath de test.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final int PRODUCTS = 50;
+
+    private ModelMapper modelMapper;
+    private ProductMapper productMapper;
+    private List<Product> products;
+
+    @Setup
+    public void setup() {
+        modelMapper = new ModelMapper();
+        Condition<Object, Object> notNull = new Condition<Object, Object>() {
+            @Override
+            public boolean applies(MappingContext<Object, Object> context) {
+                return context.getSource() != null;
+            }
+        };
+        modelMapper.getConfiguration().setPropertyCondition(notNull);
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+
+        AttachmentMapper attachmentMapper = new AttachmentMapper();
+        productMapper = new ProductMapper(new CategoryMapper(attachmentMapper), attachmentMapper);
+
+        ProductCategory category = new ProductCategory();
+        category.setId(1L);
+        category.setName("Cámaras");
+        category.setSlug("camaras");
+        category.setCategoryFeatures(new LinkedHashSet<>());
+        category.setCategoryPolicies(new LinkedHashSet<>());
+        for (long i = 1; i <= 5; i++) {
+            CategoryFeature feature = new CategoryFeature();
+            feature.setId(i);
+            feature.setName("Feature " + i);
+            feature.setIcon("icon-" + i);
+            category.getCategoryFeatures().add(feature);
+
+            CategoryPolicy policy = new CategoryPolicy();
+            policy.setId(i);
+            policy.setTitle("Policy " + i);
+            category.getCategoryPolicies().add(policy);
+        }
+
+        products = new ArrayList<>(PRODUCTS);
+        for (long i = 1; i <= PRODUCTS; i++) {
+            Product product = new Product();
+            product.setId(i);
+            product.setName("Producto " + i);
+            product.setDescription("Descripción del producto " + i);
+            product.setStock(2);
+            product.setPrice(10.0 * i);
+            product.setRentType(RentType.DAILY);
+            product.setCategory(category);
+            for (long j = 1; j <= 3; j++) {
+                Attachment attachment = new Attachment();
+                attachment.setId(i * 10 + j);
+                attachment.setUrl("https://cdn/" + i + "/" + j + ".png");
+                attachment.setFileName(j + ".png");
+                product.addAttachment(attachment);
+            }
+            product.setFeatures(new LinkedHashSet<>(category.getCategoryFeatures()));
+            products.add(product);
+        }
+    }
+
+    @Benchmark
+    public List<ProductDTO> modelMapper() {
+        List<ProductDTO> result = new ArrayList<>(products.size());
+        for (Product product : products) {
+            ProductDTO productDTO = modelMapper.map(product, ProductDTO.class);
+            productDTO.getCategory().setFeatures(product.getCategory().getCategoryFeatures().stream().map(feature -> modelMapper.map(feature, CategoryFeatureDTO.class)).collect(Collectors.toList()));
+            productDTO.getCategory().setPolicies(product.getCategory().getCategoryPolicies().stream().map(policy -> modelMapper.map(policy, CategoryPolicyDTO.class)).collect(Collectors.toList()));
+            productDTO.setAttachments(product.getAttachments().stream().map(attachment -> modelMapper.map(attachment, AttachmentDTO.class)).collect(Collectors.toList()));
+            productDTO.setFeatures(product.getFeatures().stream().map(feature -> modelMapper.map(feature, CategoryFeatureDTO.class)).collect(Collectors.toList()));
+            result.add(productDTO);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<ProductDTO> productMapper() {
+        List<ProductDTO> result = new ArrayList<>(products.size());
+        for (Product product : products) {
+            result.add(productMapper.toDTO(product));
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MapperBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,63 @@
+package proyecto.dh.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import proyecto.dh.common.utils.TextFolder;
+
+import java.text.Normalizer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el plegado anterior (Normalizer + replaceAll por palabra, como hacían searchProducts
+ * y extractWords) contra {@link TextFolder}, con palabras ASCII y con acentos.
+ * Ejecutar el método {@code main} desde el IDE con el classpath de test.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextFolderBenchmark {
+
+    @Param({"ascii", "accented"})
+    private String sample;
+
+    private String[] words;
+
+    @Setup
+    public void setup() {
+        String text = "ascii".equals(sample)
+                ? "camara reflex con lente de 50 mm ideal para fotografia de estudio y tripode incluido"
+                : "Cámara réflex con lente de 50 mm ideal para fotografía de estudio y trípode incluido";
+        words = text.split(" ");
+    }
+
+    @Benchmark
+    public void normalizerRegex(Blackhole blackhole) {
+        for (String word : words) {
+            blackhole.consume(Normalizer.normalize(word, Normalizer.Form.NFD)
+                    .replaceAll("\\p{InCombiningDiacriticalMarks}+", "")
+                    .replaceAll("\\s", "")
+                    .toLowerCase());
+        }
+    }
+
+    @Benchmark
+    public void textFolder(Blackhole blackhole) {
+        for (String word : words) {
+            blackhole.consume(TextFolder.foldCompact(word));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TextFolderBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
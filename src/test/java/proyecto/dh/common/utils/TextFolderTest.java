@@ -0,0 +1,44 @@
+package proyecto.dh.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.Normalizer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextFolderTest {
+
+    @Test
+    void returnsSameInstanceForLowercaseAscii() {
+        String text = "tripode de aluminio";
+
+        assertThat(TextFolder.fold(text)).isSameAs(text);
+    }
+
+    @Test
+    void lowercasesAndRemovesAccents() {
+        assertThat(TextFolder.fold("Cámara RÉFLEX Ñandú ¿Sí?")).isEqualTo("camara reflex nandu ¿si?");
+    }
+
+    @Test
+    void foldsLigaturesLikeUnaccent() {
+        assertThat(TextFolder.fold("Straße Æther Œuvre Łódź")).isEqualTo("strasse aether oeuvre lodz");
+    }
+
+    @Test
+    void dropsCombiningMarksOfDecomposedText() {
+        String decomposed = Normalizer.normalize("Cámara", Normalizer.Form.NFD);
+
+        assertThat(TextFolder.fold(decomposed)).isEqualTo("camara");
+    }
+
+    @Test
+    void compactFormRemovesWhitespace() {
+        assertThat(TextFolder.foldCompact("Luz  LED\tcálida")).isEqualTo("luzledcalida");
+    }
+
+    @Test
+    void fallsBackToNormalizerOutsideLatinTables() {
+        assertThat(TextFolder.fold("Ệ Ω")).isEqualTo("e ω");
+    }
+}
@@ -0,0 +1,50 @@
+package proyecto.dh.resources.attachment.mapper;
+
+import org.junit.jupiter.api.Test;
+import proyecto.dh.resources.attachment.dto.AttachmentDTO;
+import proyecto.dh.resources.attachment.entity.Attachment;
+import proyecto.dh.resources.product.entity.Product;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AttachmentMapperTest {
+
+    private final AttachmentMapper attachmentMapper = new AttachmentMapper();
+
+    @Test
+    void toDTOCopiesEveryFieldButTheProduct() {
+        Product product = new Product();
+        product.setId(10L);
+        Attachment attachment = new Attachment();
+        attachment.setId(101L);
+        attachment.setUrl("https://cdn/front.png");
+        attachment.setFileName("front.png");
+        attachment.setProduct(product);
+
+        AttachmentDTO dto = attachmentMapper.toDTO(attachment);
+
+        assertThat(dto.getId()).isEqualTo(101L);
+        assertThat(dto.getUrl()).isEqualTo("https://cdn/front.png");
+        assertThat(dto.getFileName()).isEqualTo("front.png");
+        assertThat(dto.getProductsIds()).isNull();
+    }
+
+    @Test
+    void toDTOOfNullIsNull() {
+        assertThat(attachmentMapper.toDTO(null)).isNull();
+    }
+
+    @Test
+    void toEntityCopiesEveryFieldButTheProducts() {
+        AttachmentDTO dto = new AttachmentDTO(101L, "https://cdn/front.png", null, List.of(10L));
+
+        Attachment attachment = attachmentMapper.toEntity(dto);
+
+        assertThat(attachment.getId()).isEqualTo(101L);
+        assertThat(attachment.getUrl()).isEqualTo("https://cdn/front.png");
+        assertThat(attachment.getFileName()).isNull();
+        assertThat(attachment.getProduct()).isNull();
+    }
+}
@@ -0,0 +1,72 @@
+package proyecto.dh.resources.favorite.mapper;
+
+import org.junit.jupiter.api.Test;
+import proyecto.dh.resources.favorite.dto.ProductFavoriteDTO;
+import proyecto.dh.resources.favorite.dto.ProductFavoriteSaveDTO;
+import proyecto.dh.resources.favorite.entity.ProductFavorite;
+import proyecto.dh.resources.product.entity.Product;
+import proyecto.dh.resources.users.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FavoriteMapperTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2030, 2, 20, 10, 30);
+
+    private final FavoriteMapper favoriteMapper = new FavoriteMapper();
+
+    @Test
+    void toDTOCopiesEveryFieldAndReferencesUserAndProductsById() {
+        User user = new User();
+        user.setId(4L);
+        Product camera = new Product();
+        camera.setId(10L);
+        Product tripod = new Product();
+        tripod.setId(11L);
+
+        ProductFavorite favorite = new ProductFavorite();
+        favorite.setId(30L);
+        favorite.setUser(user);
+        favorite.setProduct(new LinkedHashSet<>(List.of(camera, tripod)));
+        favorite.setCreationDateTime(CREATED);
+
+        ProductFavoriteDTO dto = favoriteMapper.toDTO(favorite);
+
+        assertThat(dto.getId()).isEqualTo(30L);
+        assertThat(dto.getUserId()).isEqualTo(4L);
+        assertThat(dto.getProductIds()).containsExactly(10L, 11L);
+        assertThat(dto.getCreationDateTime()).isEqualTo(CREATED);
+    }
+
+    @Test
+    void toDTOLeavesMissingReferencesNull() {
+        ProductFavorite favorite = new ProductFavorite();
+        favorite.setId(31L);
+        favorite.setProduct(null);
+
+        ProductFavoriteDTO dto = favoriteMapper.toDTO(favorite);
+
+        assertThat(dto.getId()).isEqualTo(31L);
+        assertThat(dto.getUserId()).isNull();
+        assertThat(dto.getProductIds()).isNull();
+    }
+
+    @Test
+    void toEntityKeepsTheCurrentDateUnlessOneIsGiven() {
+        ProductFavorite dated = favoriteMapper.toEntity(ProductFavoriteSaveDTO.builder()
+                .userId(4L)
+                .productIds(List.of(10L))
+                .creationDateTime(CREATED)
+                .build());
+        ProductFavorite undated = favoriteMapper.toEntity(ProductFavoriteSaveDTO.builder().build());
+
+        assertThat(dated.getCreationDateTime()).isEqualTo(CREATED);
+        // El usuario y los productos los asigna el servicio
+        assertThat(dated.getUser()).isNull();
+        assertThat(undated.getCreationDateTime()).isNotNull();
+    }
+}
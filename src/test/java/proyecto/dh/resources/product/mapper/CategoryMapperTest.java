@@ -0,0 +1,143 @@
+package proyecto.dh.resources.product.mapper;
+
+import org.junit.jupiter.api.Test;
+import proyecto.dh.resources.attachment.entity.Attachment;
+import proyecto.dh.resources.attachment.mapper.AttachmentMapper;
+import proyecto.dh.resources.product.dto.CategoryDTO;
+import proyecto.dh.resources.product.dto.CategoryFeatureSaveDTO;
+import proyecto.dh.resources.product.dto.CategoryPolicySaveDTO;
+import proyecto.dh.resources.product.dto.CategorySaveDTO;
+import proyecto.dh.resources.product.entity.CategoryFeature;
+import proyecto.dh.resources.product.entity.CategoryPolicy;
+import proyecto.dh.resources.product.entity.ProductCategory;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CategoryMapperTest {
+
+    private final CategoryMapper categoryMapper = new CategoryMapper(new AttachmentMapper());
+
+    @Test
+    void toDTOCopiesEveryFieldWithImageFeaturesAndPolicies() {
+        CategoryDTO dto = categoryMapper.toDTO(buildCategory());
+
+        assertThat(dto.getId()).isEqualTo(1L);
+        assertThat(dto.getName()).isEqualTo("Cámaras");
+        assertThat(dto.getDescription()).isEqualTo("Cámaras profesionales");
+        assertThat(dto.getSlug()).isEqualTo("camaras");
+
+        assertThat(dto.getAttachment().getId()).isEqualTo(100L);
+        assertThat(dto.getAttachment().getUrl()).isEqualTo("https://cdn/cat.png");
+        assertThat(dto.getAttachment().getFileName()).isEqualTo("cat.png");
+
+        assertThat(dto.getFeatures()).hasSize(2);
+        assertThat(dto.getFeatures()).extracting("id").containsExactly(7L, 9L);
+        assertThat(dto.getFeatures()).extracting("name").containsExactly("Sensor", "Lente");
+        assertThat(dto.getFeatures()).extracting("description").containsExactly("Full frame", null);
+        assertThat(dto.getFeatures()).extracting("icon").containsExactly("sensor-icon", "lens-icon");
+
+        assertThat(dto.getPolicies()).hasSize(1);
+        assertThat(dto.getPolicies().get(0).getId()).isEqualTo(8L);
+        assertThat(dto.getPolicies().get(0).getTitle()).isEqualTo("Devolución");
+        assertThat(dto.getPolicies().get(0).getDescription()).isEqualTo("48 horas");
+    }
+
+    @Test
+    void toDTOLeavesMissingValuesNull() {
+        ProductCategory category = new ProductCategory();
+        category.setId(2L);
+        category.setName("Luces");
+        category.setCategoryFeatures(null);
+        category.setCategoryPolicies(null);
+
+        CategoryDTO dto = categoryMapper.toDTO(category);
+
+        assertThat(dto.getId()).isEqualTo(2L);
+        assertThat(dto.getName()).isEqualTo("Luces");
+        assertThat(dto.getDescription()).isNull();
+        assertThat(dto.getSlug()).isNull();
+        assertThat(dto.getAttachment()).isNull();
+        assertThat(dto.getFeatures()).isNull();
+        assertThat(dto.getPolicies()).isNull();
+        assertThat(categoryMapper.toDTO(null)).isNull();
+    }
+
+    @Test
+    void toEntityCopiesScalarFieldsOnly() {
+        CategorySaveDTO saveDTO = new CategorySaveDTO();
+        saveDTO.setName("Lentes");
+        saveDTO.setDescription("Ópticas intercambiables");
+        saveDTO.setSlug("lentes");
+        saveDTO.setAttachmentId(100L);
+        saveDTO.setFeatures(List.of(new CategoryFeatureSaveDTO()));
+        saveDTO.setPolicies(List.of(new CategoryPolicySaveDTO()));
+
+        ProductCategory category = categoryMapper.toEntity(saveDTO);
+
+        assertThat(category.getId()).isNull();
+        assertThat(category.getName()).isEqualTo("Lentes");
+        assertThat(category.getDescription()).isEqualTo("Ópticas intercambiables");
+        assertThat(category.getSlug()).isEqualTo("lentes");
+        // La imagen, las características y las políticas las resuelve el servicio
+        assertThat(category.getAttachment()).isNull();
+        assertThat(category.getCategoryFeatures()).isEmpty();
+        assertThat(category.getCategoryPolicies()).isEmpty();
+    }
+
+    @Test
+    void toFeatureAndPolicyEntityCopyEveryField() {
+        CategoryFeatureSaveDTO featureSaveDTO = new CategoryFeatureSaveDTO();
+        featureSaveDTO.setName("Sensor");
+        featureSaveDTO.setDescription("Full frame");
+        featureSaveDTO.setIcon("sensor-icon");
+        CategoryPolicySaveDTO policySaveDTO = new CategoryPolicySaveDTO();
+        policySaveDTO.setTitle("Devolución");
+
+        CategoryFeature feature = categoryMapper.toFeatureEntity(featureSaveDTO);
+        CategoryPolicy policy = categoryMapper.toPolicyEntity(policySaveDTO);
+
+        assertThat(feature.getId()).isNull();
+        assertThat(feature.getName()).isEqualTo("Sensor");
+        assertThat(feature.getDescription()).isEqualTo("Full frame");
+        assertThat(feature.getIcon()).isEqualTo("sensor-icon");
+        assertThat(policy.getId()).isNull();
+        assertThat(policy.getTitle()).isEqualTo("Devolución");
+        assertThat(policy.getDescription()).isNull();
+    }
+
+    private ProductCategory buildCategory() {
+        Attachment image = new Attachment();
+        image.setId(100L);
+        image.setUrl("https://cdn/cat.png");
+        image.setFileName("cat.png");
+
+        CategoryFeature sensor = new CategoryFeature();
+        sensor.setId(7L);
+        sensor.setName("Sensor");
+        sensor.setDescription("Full frame");
+        sensor.setIcon("sensor-icon");
+
+        CategoryFeature lens = new CategoryFeature();
+        lens.setId(9L);
+        lens.setName("Lente");
+        lens.setIcon("lens-icon");
+
+        CategoryPolicy policy = new CategoryPolicy();
+        policy.setId(8L);
+        policy.setTitle("Devolución");
+        policy.setDescription("48 horas");
+
+        ProductCategory category = new ProductCategory();
+        category.setId(1L);
+        category.setName("Cámaras");
+        category.setDescription("Cámaras profesionales");
+        category.setSlug("camaras");
+        category.setAttachment(image);
+        category.setCategoryFeatures(new LinkedHashSet<>(List.of(sensor, lens)));
+        category.setCategoryPolicies(new LinkedHashSet<>(List.of(policy)));
+        return category;
+    }
+}
@@ -0,0 +1,144 @@
+package proyecto.dh.resources.product.mapper;
+
+import org.junit.jupiter.api.Test;
+import proyecto.dh.common.enums.RentType;
+import proyecto.dh.resources.attachment.entity.Attachment;
+import proyecto.dh.resources.attachment.mapper.AttachmentMapper;
+import proyecto.dh.resources.product.dto.CategorySaveDTO;
+import proyecto.dh.resources.product.dto.ProductDTO;
+import proyecto.dh.resources.product.dto.ProductSaveDTO;
+import proyecto.dh.resources.product.entity.CategoryFeature;
+import proyecto.dh.resources.product.entity.CategoryPolicy;
+import proyecto.dh.resources.product.entity.Product;
+import proyecto.dh.resources.product.entity.ProductCategory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductMapperTest {
+
+    private final AttachmentMapper attachmentMapper = new AttachmentMapper();
+    private final CategoryMapper categoryMapper = new CategoryMapper(attachmentMapper);
+    private final ProductMapper productMapper = new ProductMapper(categoryMapper, attachmentMapper);
+
+    @Test
+    void toDTOCopiesProductCategoryAttachmentsAndFeatures() {
+        Product product = buildProduct();
+
+        ProductDTO dto = productMapper.toDTO(product);
+
+        assertThat(dto.getId()).isEqualTo(10L);
+        assertThat(dto.getName()).isEqualTo("Cámara Sony");
+        assertThat(dto.getDescription()).isEqualTo("Mirrorless full frame");
+        assertThat(dto.getStock()).isEqualTo(3);
+        assertThat(dto.getPrice()).isEqualTo(150.5);
+        assertThat(dto.getRentType()).isEqualTo(RentType.DAILY);
+
+        assertThat(dto.getCategory().getId()).isEqualTo(1L);
+        assertThat(dto.getCategory().getSlug()).isEqualTo("camaras");
+        assertThat(dto.getCategory().getAttachment().getUrl()).isEqualTo("https://cdn/cat.png");
+        assertThat(dto.getCategory().getFeatures()).extracting("name").containsExactly("Sensor");
+        assertThat(dto.getCategory().getPolicies()).extracting("title").containsExactly("Devolución");
+
+        assertThat(dto.getAttachments()).extracting("fileName").containsExactly("front.png");
+        assertThat(dto.getAttachments().get(0).getProductsIds()).isNull();
+        assertThat(dto.getFeatures()).extracting("icon").containsExactly("sensor-icon");
+    }
+
+    @Test
+    void toDTOLeavesMissingCollectionsNull() {
+        Product product = buildProduct();
+        product.setAttachments(null);
+        product.setFeatures(null);
+        product.getCategory().setAttachment(null);
+
+        ProductDTO dto = productMapper.toDTO(product);
+
+        assertThat(dto.getAttachments()).isNull();
+        assertThat(dto.getFeatures()).isNull();
+        assertThat(dto.getCategory().getAttachment()).isNull();
+    }
+
+    @Test
+    void toEntityCopiesOnlyScalarFields() {
+        ProductSaveDTO saveDTO = ProductSaveDTO.builder()
+                .name("Trípode")
+                .description("Aluminio")
+                .stock(2)
+                .price(20.0)
+                .rentType(RentType.WEEKLY)
+                .categoryId(5L)
+                .featureIds(List.of(1L))
+                .build();
+
+        Product product = productMapper.toEntity(saveDTO);
+
+        assertThat(product.getId()).isNull();
+        assertThat(product.getName()).isEqualTo("Trípode");
+        assertThat(product.getStock()).isEqualTo(2);
+        assertThat(product.getRentType()).isEqualTo(RentType.WEEKLY);
+        assertThat(product.getCategory()).isNull();
+        assertThat(product.getFeatures()).isEmpty();
+    }
+
+    @Test
+    void categoryUpdateEntityIgnoresNullValues() {
+        ProductCategory category = buildProduct().getCategory();
+        CategorySaveDTO update = new CategorySaveDTO();
+        update.setName("Lentes");
+
+        categoryMapper.updateEntity(update, category);
+
+        assertThat(category.getName()).isEqualTo("Lentes");
+        assertThat(category.getSlug()).isEqualTo("camaras");
+        assertThat(category.getDescription()).isEqualTo("Cámaras profesionales");
+    }
+
+    private Product buildProduct() {
+        Attachment categoryImage = new Attachment();
+        categoryImage.setId(100L);
+        categoryImage.setUrl("https://cdn/cat.png");
+        categoryImage.setFileName("cat.png");
+
+        CategoryFeature feature = new CategoryFeature();
+        feature.setId(7L);
+        feature.setName("Sensor");
+        feature.setIcon("sensor-icon");
+
+        CategoryPolicy policy = new CategoryPolicy();
+        policy.setId(8L);
+        policy.setTitle("Devolución");
+        policy.setDescription("48 horas");
+
+        ProductCategory category = new ProductCategory();
+        category.setId(1L);
+        category.setName("Cámaras");
+        category.setDescription("Cámaras profesionales");
+        category.setSlug("camaras");
+        category.setAttachment(categoryImage);
+        category.setCategoryFeatures(new LinkedHashSet<>(Set.of(feature)));
+        category.setCategoryPolicies(new LinkedHashSet<>(Set.of(policy)));
+
+        Product product = new Product();
+        product.setId(10L);
+        product.setName("Cámara Sony");
+        product.setDescription("Mirrorless full frame");
+        product.setStock(3);
+        product.setPrice(150.5);
+        product.setRentType(RentType.DAILY);
+        product.setCategory(category);
+
+        Attachment image = new Attachment();
+        image.setId(101L);
+        image.setUrl("https://cdn/front.png");
+        image.setFileName("front.png");
+        image.setProduct(product);
+        product.setAttachments(new ArrayList<>(List.of(image)));
+        product.setFeatures(new LinkedHashSet<>(Set.of(feature)));
+        return product;
+    }
+}
@@ -0,0 +1,147 @@
+package proyecto.dh.resources.product.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica con EXPLAIN que las consultas de ProductSearchRepository usan los índices de trigramas y la
+ * clave primaria de product_daily_occupancy.
+ * Crea el esquema mínimo, marca la base en la versión 23 y aplica las migraciones siguientes,
+ * igual que una base existente con baseline-on-migrate.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ProductSearchRepositoryPlanTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    @BeforeAll
+    static void migrate() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE categories (id BIGSERIAL PRIMARY KEY, name VARCHAR(255) NOT NULL)");
+            statement.execute("CREATE TABLE products (id BIGSERIAL PRIMARY KEY, name VARCHAR(255) NOT NULL UNIQUE, description VARCHAR(800) NOT NULL, " +
+                    "stock INTEGER NOT NULL, price DOUBLE PRECISION NOT NULL, rent_type SMALLINT NOT NULL, category_id BIGINT REFERENCES categories (id))");
+            statement.execute("CREATE TABLE reservations (id BIGSERIAL PRIMARY KEY, product_id BIGINT REFERENCES products (id), " +
+                    "start_date DATE NOT NULL, end_date DATE NOT NULL, cancelled BOOLEAN NOT NULL DEFAULT FALSE)");
+        }
+
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .baselineOnMigrate(true)
+                .baselineVersion("23")
+                .load()
+                .migrate();
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO categories (name) SELECT 'Categoría ' || g FROM generate_series(1, 50) g");
+            statement.execute("INSERT INTO products (name, description, stock, price, rent_type, category_id) " +
+                    "SELECT 'Producto ' || g, 'Descripción del producto número ' || g, 1, g, 0, 1 + g % 50 FROM generate_series(1, 5000) g");
+            statement.execute("INSERT INTO products (name, description, stock, price, rent_type, category_id) " +
+                    "VALUES ('Cámara réflex', 'Cuerpo de cámara profesional', 1, 100, 0, 1)");
+            statement.execute("INSERT INTO reservations (product_id, start_date, end_date, cancelled) " +
+                    "SELECT g, DATE '2030-01-01' + (g % 60), DATE '2030-01-03' + (g % 60), g % 10 = 0 FROM generate_series(1, 5000) g");
+            statement.execute("INSERT INTO product_daily_occupancy (product_id, reserved_date, units) " +
+                    "SELECT r.product_id, CAST(d.day AS DATE), COUNT(*) FROM reservations r " +
+                    "CROSS JOIN LATERAL generate_series(r.start_date, r.end_date, INTERVAL '1 day') AS d(day) WHERE r.cancelled = false " +
+                    "GROUP BY r.product_id, CAST(d.day AS DATE)");
+            // Dos unidades: una reservada todo el rango buscado, y las dos reservadas solo el 2030-01-11
+            statement.execute("INSERT INTO products (name, description, stock, price, rent_type, category_id) " +
+                    "VALUES ('Trípode con una reserva', 'Trípode de aluminio', 2, 50, 0, 1), ('Trípode sin lugar', 'Trípode de carbono', 2, 50, 0, 1)");
+            statement.execute("INSERT INTO product_daily_occupancy (product_id, reserved_date, units) " +
+                    "SELECT p.id, CAST(d.day AS DATE), 1 FROM products p CROSS JOIN generate_series(DATE '2030-01-10', DATE '2030-01-12', INTERVAL '1 day') AS d(day) " +
+                    "WHERE p.name = 'Trípode con una reserva'");
+            statement.execute("INSERT INTO product_daily_occupancy (product_id, reserved_date, units) " +
+                    "SELECT id, DATE '2030-01-11', 2 FROM products WHERE name = 'Trípode sin lugar'");
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @Test
+    void searchUsesTrigramIndexesOnEveryBranch() throws SQLException {
+        String plan = explain(ProductSearchRepository.searchSql(false, false));
+
+        assertThat(plan).contains("idx_products_name_trgm");
+        assertThat(plan).contains("idx_products_description_trgm");
+        assertThat(plan).contains("idx_categories_name_trgm");
+    }
+
+    @Test
+    void availabilityFilterUsesOccupancyPrimaryKey() throws SQLException {
+        String plan = explain(ProductSearchRepository.searchSql(false, true));
+
+        assertThat(plan).contains("pk_product_daily_occupancy");
+    }
+
+    @Test
+    void availabilityFilterKeepsPartlyBookedProducts() throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (Connection connection = connect(); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT name FROM products WHERE name LIKE 'Trípode%' AND id IN ("
+                     + bind(ProductSearchRepository.allSql(false, true)) + ")")) {
+            while (resultSet.next()) {
+                names.add(resultSet.getString(1));
+            }
+        }
+
+        assertThat(names).containsExactly("Trípode con una reserva");
+    }
+
+    @Test
+    void suggestionsUseTrigramIndexes() throws SQLException {
+        String plan = explain(ProductSearchRepository.SUGGESTIONS_SQL);
+
+        assertThat(plan).contains("idx_products_name_trgm");
+        assertThat(plan).contains("idx_products_description_trgm");
+    }
+
+    @Test
+    void searchIgnoresAccentsAndCase() throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (Connection connection = connect(); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT name FROM products WHERE id IN (" + bind(ProductSearchRepository.searchSql(false, false)) + ")")) {
+            while (resultSet.next()) {
+                names.add(resultSet.getString(1));
+            }
+        }
+
+        assertThat(names).containsExactly("Cámara réflex");
+    }
+
+    private static String explain(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            // Con pocas filas el planificador puede preferir un Seq Scan; se descarta para ver si el índice es utilizable
+            statement.execute("SET enable_seqscan = off");
+            try (ResultSet resultSet = statement.executeQuery("EXPLAIN " + bind(sql))) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+        }
+        return plan.toString();
+    }
+
+    private static String bind(String sql) {
+        return sql.replace(":pattern", "'%camara%'")
+                .replace(":startDate", "DATE '2030-01-10'")
+                .replace(":endDate", "DATE '2030-01-12'");
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+}
@@ -0,0 +1,49 @@
+package proyecto.dh.resources.product.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FuzzyTermIndexTest {
+
+    private final FuzzyTermIndex index = new FuzzyTermIndex();
+
+    @BeforeEach
+    void setUp() {
+        for (String term : new String[]{"camara", "tripode", "luces", "lente", "microfono"}) {
+            index.adjust(term, 1);
+        }
+        index.adjust("camara", 1);
+    }
+
+    @Test
+    void correctsMissingAndExtraLetters() {
+        assertThat(index.matches("camra", false, 5)).extracting(FuzzyTermIndex.Match::term).containsExactly("camara");
+        assertThat(index.matches("tripoide", false, 5)).extracting(FuzzyTermIndex.Match::term).containsExactly("tripode");
+    }
+
+    @Test
+    void comparesPrefixesForAutocompletion() {
+        assertThat(index.matches("micrfo", true, 5)).extracting(FuzzyTermIndex.Match::term).containsExactly("microfono");
+        assertThat(index.matches("micrfo", false, 5)).isEmpty();
+    }
+
+    @Test
+    void toleratesNoEditsOnShortWords() {
+        assertThat(index.matches("lu", false, 5)).isEmpty();
+    }
+
+    @Test
+    void forgetsRemovedTerms() {
+        index.adjust("tripode", -1);
+
+        assertThat(index.matches("tripoide", false, 5)).isEmpty();
+    }
+
+    @Test
+    void stopsAtTheMaximumDistance() {
+        assertThat(FuzzyTermIndex.distance("reflector", "proyector", 2, false)).isEqualTo(3);
+        assertThat(FuzzyTermIndex.distance("lentes", "lente", 2, false)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,53 @@
+package proyecto.dh.resources.product.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RankedTermIndexTest {
+
+    private final RankedTermIndex index = new RankedTermIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.add(1L, RankedTermIndex.analyze("Luces LED", "Iluminación", "Panel de luz continua"),
+                List.of("luces", "led", "iluminacion", "panel", "de", "luz", "continua"));
+        index.add(2L, RankedTermIndex.analyze("Cámara réflex", "Cámaras", "Cuerpo profesional"),
+                List.of("camara", "reflex", "camaras", "cuerpo", "profesional"));
+    }
+
+    @Test
+    void lastWordMatchesWhileTypingAPluralWhoseStemChanges() {
+        for (String typed : new String[]{"lu", "luc", "luce", "luces"}) {
+            assertThat(score(typed)).as(typed).containsOnlyKeys(1L);
+        }
+    }
+
+    @Test
+    void pluralMatchesTheSingular() {
+        assertThat(score("camaras reflex")).containsOnlyKeys(2L);
+        assertThat(score("luces panel")).containsOnlyKeys(1L);
+    }
+
+    @Test
+    void onlyTheLastWordIsAPrefix() {
+        assertThat(score("luc led")).isEmpty();
+        assertThat(score("led luc")).containsOnlyKeys(1L);
+    }
+
+    @Test
+    void forgetsWordsOfRemovedProducts() {
+        index.remove(1L, RankedTermIndex.analyze("Luces LED", "Iluminación", "Panel de luz continua"),
+                List.of("luces", "led", "iluminacion", "panel", "de", "luz", "continua"));
+
+        assertThat(score("luc")).isEmpty();
+    }
+
+    private Map<Long, Float> score(String text) {
+        return index.score(RankedTermIndex.queryWords(text), null);
+    }
+}
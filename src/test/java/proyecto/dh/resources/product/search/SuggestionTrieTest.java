@@ -0,0 +1,50 @@
+package proyecto.dh.resources.product.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionTrieTest {
+
+    private final SuggestionTrie trie = new SuggestionTrie();
+
+    @BeforeEach
+    void setUp() {
+        trie.adjust("camara", "Cámara", 1);
+        trie.adjust("camara", "cámara", 1);
+        trie.adjust("camara", "cámara", 1);
+        trie.adjust("camaras", "Cámaras", 1);
+        trie.adjust("cable", "Cable", 1);
+    }
+
+    @Test
+    void completesFoldedPrefixesByFrequency() {
+        assertThat(trie.complete("cam", 5)).containsExactly("camara", "camaras");
+        assertThat(trie.complete("ca", 1)).containsExactly("camara");
+    }
+
+    @Test
+    void displaysTheMostUsedForm() {
+        assertThat(trie.display("camara")).isEqualTo("cámara");
+        assertThat(trie.display("camaras")).isEqualTo("Cámaras");
+    }
+
+    @Test
+    void prefersUpperCaseOnTies() {
+        trie.adjust("camara", "Cámara", 1);
+
+        assertThat(trie.display("camara")).isEqualTo("Cámara");
+    }
+
+    @Test
+    void forgetsFormsOfRemovedProducts() {
+        trie.adjust("camara", "cámara", -1);
+        trie.adjust("camara", "cámara", -1);
+        trie.adjust("cable", "Cable", -1);
+
+        assertThat(trie.display("camara")).isEqualTo("Cámara");
+        assertThat(trie.complete("cab", 5)).isEmpty();
+        assertThat(trie.display("cable")).isEqualTo("cable");
+    }
+}
@@ -0,0 +1,56 @@
+package proyecto.dh.resources.reservation.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OccupancyTreeTest {
+
+    private static final LocalDate JUNE_1 = LocalDate.of(2030, 6, 1);
+
+    private final OccupancyTree tree = new OccupancyTree();
+
+    @Test
+    void countsOverlappingReservationsPerDay() {
+        tree.add(JUNE_1, JUNE_1.plusDays(4), 1);
+        tree.add(JUNE_1.plusDays(3), JUNE_1.plusDays(9), 1);
+
+        assertThat(tree.max(JUNE_1, JUNE_1.plusDays(2))).isEqualTo(1);
+        assertThat(tree.max(JUNE_1.plusDays(2), JUNE_1.plusDays(6))).isEqualTo(2);
+        assertThat(tree.max(JUNE_1.plusDays(10), JUNE_1.plusDays(20))).isZero();
+    }
+
+    @Test
+    void treatsBothEndsAsReserved() {
+        tree.add(JUNE_1, JUNE_1.plusDays(4), 1);
+
+        assertThat(tree.max(JUNE_1.plusDays(4), JUNE_1.plusDays(4))).isEqualTo(1);
+        assertThat(tree.max(JUNE_1.minusDays(3), JUNE_1)).isEqualTo(1);
+        assertThat(tree.max(JUNE_1.plusDays(5), JUNE_1.plusDays(8))).isZero();
+    }
+
+    @Test
+    void releasesCancelledReservations() {
+        tree.add(JUNE_1, JUNE_1.plusDays(4), 1);
+        tree.add(JUNE_1.plusDays(2), JUNE_1.plusDays(3), 1);
+        tree.add(JUNE_1, JUNE_1.plusDays(4), -1);
+
+        assertThat(tree.max(JUNE_1, JUNE_1.plusDays(4))).isEqualTo(1);
+        assertThat(tree.max(JUNE_1, JUNE_1.plusDays(1))).isZero();
+    }
+
+    @Test
+    void splitsRangeIntoRunsOfEqualOccupancy() {
+        tree.add(JUNE_1.plusDays(2), JUNE_1.plusDays(5), 1);
+        tree.add(JUNE_1.plusDays(4), JUNE_1.plusDays(6), 1);
+
+        assertThat(tree.runs(JUNE_1, JUNE_1.plusDays(9))).containsExactly(
+                new OccupancyTree.DayRun(JUNE_1, JUNE_1.plusDays(1), 0),
+                new OccupancyTree.DayRun(JUNE_1.plusDays(2), JUNE_1.plusDays(3), 1),
+                new OccupancyTree.DayRun(JUNE_1.plusDays(4), JUNE_1.plusDays(5), 2),
+                new OccupancyTree.DayRun(JUNE_1.plusDays(6), JUNE_1.plusDays(6), 1),
+                new OccupancyTree.DayRun(JUNE_1.plusDays(7), JUNE_1.plusDays(9), 0));
+    }
+}
@@ -0,0 +1,105 @@
+package proyecto.dh.resources.reservation.mapper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.junit.jupiter.api.Test;
+import proyecto.dh.resources.product.entity.Product;
+import proyecto.dh.resources.reservation.dto.ReservationDTO;
+import proyecto.dh.resources.reservation.dto.ReservationSaveDTO;
+import proyecto.dh.resources.reservation.entity.Reservation;
+import proyecto.dh.resources.users.entity.User;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReservationMapperTest {
+
+    private static final LocalDate START = LocalDate.of(2030, 3, 1);
+    private static final LocalDate END = LocalDate.of(2030, 3, 4);
+    private static final LocalDateTime CREATED = LocalDateTime.of(2030, 2, 20, 10, 30);
+
+    private final ReservationMapper reservationMapper = new ReservationMapper();
+
+    @Test
+    void toDTOCopiesEveryFieldAndReferencesUserAndProductById() {
+        User user = new User();
+        user.setId(4L);
+        Product product = new Product();
+        product.setId(10L);
+
+        Reservation reservation = new Reservation();
+        reservation.setId(20L);
+        reservation.setUser(user);
+        reservation.setProduct(product);
+        reservation.setStartDate(START);
+        reservation.setEndDate(END);
+        reservation.setCreationDateTime(CREATED);
+        reservation.setAmount(450.0);
+        reservation.setCancelled(true);
+        reservation.setPayment(payment());
+
+        ReservationDTO dto = reservationMapper.toDTO(reservation);
+
+        assertThat(dto.getId()).isEqualTo(20L);
+        assertThat(dto.getUserId()).isEqualTo(4L);
+        assertThat(dto.getProductId()).isEqualTo(10L);
+        assertThat(dto.getStartDate()).isEqualTo(START);
+        assertThat(dto.getEndDate()).isEqualTo(END);
+        assertThat(dto.getCreationDateTime()).isEqualTo(CREATED);
+        assertThat(dto.getAmount()).isEqualTo(450.0);
+        assertThat(dto.isCancelled()).isTrue();
+        assertThat(dto.getPayment().get("method").asText()).isEqualTo("card");
+        assertThat(dto.getPayment().get("card").get("last4").asText()).isEqualTo("4242");
+    }
+
+    @Test
+    void toDTOLeavesMissingReferencesNull() {
+        Reservation reservation = new Reservation();
+        reservation.setId(21L);
+        reservation.setStartDate(START);
+        reservation.setEndDate(END);
+
+        ReservationDTO dto = reservationMapper.toDTO(reservation);
+
+        assertThat(dto.getId()).isEqualTo(21L);
+        assertThat(dto.getUserId()).isNull();
+        assertThat(dto.getProductId()).isNull();
+        assertThat(dto.getCreationDateTime()).isNull();
+        assertThat(dto.getAmount()).isNull();
+        assertThat(dto.isCancelled()).isFalse();
+        assertThat(dto.getPayment()).isNull();
+    }
+
+    @Test
+    void toEntityCopiesDatesAndPaymentOnly() {
+        ReservationSaveDTO saveDTO = ReservationSaveDTO.builder()
+                .productId(10L)
+                .startDate(START)
+                .endDate(END)
+                .creationDateTime(CREATED)
+                .payment(payment())
+                .build();
+
+        Reservation reservation = reservationMapper.toEntity(saveDTO);
+
+        assertThat(reservation.getId()).isNull();
+        assertThat(reservation.getStartDate()).isEqualTo(START);
+        assertThat(reservation.getEndDate()).isEqualTo(END);
+        assertThat(reservation.getCreationDateTime()).isEqualTo(CREATED);
+        assertThat(reservation.getPayment()).isEqualTo(payment());
+        // El usuario, el producto y el importe los asigna ReservationService
+        assertThat(reservation.getUser()).isNull();
+        assertThat(reservation.getProduct()).isNull();
+        assertThat(reservation.getAmount()).isNull();
+        assertThat(reservation.isCancelled()).isFalse();
+    }
+
+    private static JsonNode payment() {
+        JsonNodeFactory factory = JsonNodeFactory.instance;
+        return factory.objectNode()
+                .put("method", "card")
+                .set("card", factory.objectNode().put("last4", "4242"));
+    }
+}
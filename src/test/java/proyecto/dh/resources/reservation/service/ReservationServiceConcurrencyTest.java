@@ -0,0 +1,235 @@
+package proyecto.dh.resources.reservation.service;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import proyecto.dh.common.enums.RentType;
+import proyecto.dh.common.enums.Role;
+import proyecto.dh.exceptions.handler.BadRequestException;
+import proyecto.dh.resources.product.entity.Product;
+import proyecto.dh.resources.product.entity.ProductCategory;
+import proyecto.dh.resources.product.repository.ProductRepository;
+import proyecto.dh.resources.reservation.availability.AvailabilityIndex;
+import proyecto.dh.resources.reservation.dto.ReservationSaveDTO;
+import proyecto.dh.resources.reservation.entity.ProductDailyOccupancy;
+import proyecto.dh.resources.reservation.mapper.ReservationMapper;
+import proyecto.dh.resources.reservation.repository.ProductDailyOccupancyRepository;
+import proyecto.dh.resources.reservation.repository.ReservationRepository;
+import proyecto.dh.resources.users.entity.User;
+import proyecto.dh.resources.users.repository.UserRepository;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lanza cientos de reservas simultáneas con ReservationService.create, cada una en su transacción, y verifica
+ * que ningún día supera el stock del producto: ni en product_daily_occupancy ni en las reservas guardadas,
+ * que deben deshacerse cuando algún día no tiene lugar. El índice de disponibilidad está listo, así que
+ * también se ejercita su rechazo previo a la base.
+ * El esquema lo crea Hibernate, como con el perfil dev.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ReservationService.class, AvailabilityService.class, AvailabilityIndex.class, ReservationMapper.class})
+class ReservationServiceConcurrencyTest {
+
+    private static final int THREADS = 50;
+    private static final LocalDate FIRST_DAY = LocalDate.now().plusDays(30);
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> 20);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.flyway.enabled", () -> false);
+    }
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ProductDailyOccupancyRepository occupancyRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private UserDetails currentUser;
+
+    @BeforeEach
+    void setUp() {
+        if (userRepository.findByEmail("cliente@test.com").isEmpty()) {
+            User user = new User();
+            user.setFirstName("Cliente");
+            user.setLastName("Prueba");
+            user.setEmail("cliente@test.com");
+            user.setPassword("secreta");
+            user.setRole(Role.ROLE_USER);
+            userRepository.save(user);
+        }
+        currentUser = org.springframework.security.core.userdetails.User.withUsername("cliente@test.com")
+                .password("secreta")
+                .authorities(Role.ROLE_USER.name())
+                .build();
+        // Igual que AvailabilityIndexLoader al arrancar
+        availabilityIndex.rebuild(() -> reservationRepository.findActiveRanges(LocalDate.now()));
+    }
+
+    @Test
+    void lastUnitsAreNeverOversold() throws Exception {
+        long productId = createProduct("Cámara réflex", 5);
+        LocalDate endDate = FIRST_DAY.plusDays(2);
+
+        List<Callable<Boolean>> bookings = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            bookings.add(() -> book(productId, FIRST_DAY, endDate));
+        }
+
+        assertThat(runTogether(bookings)).filteredOn(Boolean::booleanValue).hasSize(5);
+        assertThat(activeReservations(productId)).isEqualTo(5);
+        assertThat(unitsPerDay(productId, FIRST_DAY, endDate)).containsExactly(5, 5, 5);
+    }
+
+    @Test
+    void overlappingRangesNeverExceedCapacity() throws Exception {
+        long productId = createProduct("Trípode", 3);
+        int days = 20;
+        AtomicIntegerArray booked = new AtomicIntegerArray(days);
+        Random random = new Random(42);
+
+        List<Callable<Boolean>> bookings = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            int start = random.nextInt(days - 4);
+            int end = start + random.nextInt(5);
+            bookings.add(() -> {
+                boolean success = book(productId, FIRST_DAY.plusDays(start), FIRST_DAY.plusDays(end));
+                if (success) {
+                    for (int day = start; day <= end; day++) {
+                        booked.incrementAndGet(day);
+                    }
+                }
+                return success;
+            });
+        }
+        List<Boolean> results = runTogether(bookings);
+
+        // Las reservas rechazadas no quedan guardadas: rollbackOn deshace el INSERT junto con los días ocupados
+        assertThat(activeReservations(productId)).isEqualTo(results.stream().filter(Boolean::booleanValue).count());
+        List<Integer> units = unitsPerDay(productId, FIRST_DAY, FIRST_DAY.plusDays(days - 1));
+        for (int day = 0; day < days; day++) {
+            assertThat(booked.get(day)).isLessThanOrEqualTo(3);
+            assertThat(units.get(day)).isEqualTo(booked.get(day));
+        }
+        assertThat(units).contains(3);
+    }
+
+    private boolean book(long productId, LocalDate startDate, LocalDate endDate) throws Exception {
+        ReservationSaveDTO reservation = ReservationSaveDTO.builder()
+                .productId(productId)
+                .startDate(startDate)
+                .endDate(endDate)
+                .payment(JsonNodeFactory.instance.objectNode().put("method", "card"))
+                .build();
+        try {
+            reservationService.create(reservation, currentUser);
+            return true;
+        } catch (BadRequestException e) {
+            return false;
+        }
+    }
+
+    private static List<Boolean> runTogether(List<Callable<Boolean>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (Callable<Boolean> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long createProduct(String name, int stock) {
+        ProductCategory category = new ProductCategory();
+        category.setName("Categoría " + name);
+        category.setSlug("categoria-" + stock);
+
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription("Producto de prueba");
+        product.setStock(stock);
+        product.setPrice(100.0);
+        product.setRentType(RentType.DAILY);
+        // La categoría se guarda en cascada con el producto
+        product.setCategory(category);
+        return productRepository.save(product).getId();
+    }
+
+    private long activeReservations(long productId) {
+        return reservationRepository.findByProductId(productId).stream()
+                .filter(reservation -> !reservation.isCancelled())
+                .count();
+    }
+
+    private List<Integer> unitsPerDay(long productId, LocalDate startDate, LocalDate endDate) {
+        int[] units = new int[(int) ChronoUnit.DAYS.between(startDate, endDate) + 1];
+        for (ProductDailyOccupancy day : occupancyRepository.findByProductIdAndReservedDateBetween(productId, startDate, endDate)) {
+            units[(int) ChronoUnit.DAYS.between(startDate, day.getReservedDate())] = day.getUnits();
+        }
+        List<Integer> result = new ArrayList<>();
+        for (int unit : units) {
+            result.add(unit);
+        }
+        return result;
+    }
+}
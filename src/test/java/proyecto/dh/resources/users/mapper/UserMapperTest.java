@@ -0,0 +1,149 @@
+package proyecto.dh.resources.users.mapper;
+
+import org.junit.jupiter.api.Test;
+import proyecto.dh.common.enums.Role;
+import proyecto.dh.resources.favorite.entity.ProductFavorite;
+import proyecto.dh.resources.favorite.mapper.FavoriteMapper;
+import proyecto.dh.resources.product.entity.Product;
+import proyecto.dh.resources.reservation.entity.Reservation;
+import proyecto.dh.resources.reservation.mapper.ReservationMapper;
+import proyecto.dh.resources.users.dto.UserAddressDTO;
+import proyecto.dh.resources.users.dto.UserCreateDTO;
+import proyecto.dh.resources.users.dto.UserDTO;
+import proyecto.dh.resources.users.entity.User;
+import proyecto.dh.resources.users.entity.UserAddress;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserMapperTest {
+
+    private final UserMapper userMapper = new UserMapper(new FavoriteMapper(), new ReservationMapper());
+
+    @Test
+    void toDTOCopiesEveryFieldWithAddressFavoritesAndReservations() {
+        User user = buildUser();
+
+        UserDTO dto = userMapper.toDTO(user);
+
+        assertThat(dto.getId()).isEqualTo(4L);
+        assertThat(dto.getFirstName()).isEqualTo("Ana");
+        assertThat(dto.getLastName()).isEqualTo("Pérez");
+        assertThat(dto.getPhone()).isEqualTo("+54 11 5555-0000");
+        assertThat(dto.getEmail()).isEqualTo("ana@test.com");
+        assertThat(dto.getRole()).isEqualTo(Role.ROLE_EDITOR);
+
+        assertThat(dto.getAddress().getStreet()).isEqualTo("Av. Corrientes 1234");
+        assertThat(dto.getAddress().getCity()).isEqualTo("CABA");
+        assertThat(dto.getAddress().getState()).isEqualTo("Buenos Aires");
+        assertThat(dto.getAddress().getZip()).isEqualTo("C1043");
+        assertThat(dto.getAddress().getCountry()).isEqualTo("Argentina");
+
+        assertThat(dto.getFavorites()).hasSize(1);
+        assertThat(dto.getFavorites().get(0).getId()).isEqualTo(30L);
+        assertThat(dto.getFavorites().get(0).getUserId()).isEqualTo(4L);
+        assertThat(dto.getFavorites().get(0).getProductIds()).containsExactly(10L);
+
+        assertThat(dto.getReservations()).hasSize(1);
+        assertThat(dto.getReservations().get(0).getId()).isEqualTo(20L);
+        assertThat(dto.getReservations().get(0).getUserId()).isEqualTo(4L);
+        assertThat(dto.getReservations().get(0).getProductId()).isEqualTo(10L);
+    }
+
+    @Test
+    void toDTOLeavesMissingValuesNull() {
+        User user = new User();
+        user.setId(5L);
+        user.setEmail("sin-datos@test.com");
+
+        UserDTO dto = userMapper.toDTO(user);
+
+        assertThat(dto.getId()).isEqualTo(5L);
+        assertThat(dto.getEmail()).isEqualTo("sin-datos@test.com");
+        assertThat(dto.getPhone()).isNull();
+        assertThat(dto.getRole()).isNull();
+        assertThat(dto.getAddress()).isNull();
+        assertThat(dto.getFavorites()).isNull();
+        assertThat(dto.getReservations()).isNull();
+    }
+
+    @Test
+    void toEntityCopiesCredentialsAndRole() {
+        UserCreateDTO createDTO = new UserCreateDTO();
+        createDTO.setFirstName("Ana");
+        createDTO.setLastName("Pérez");
+        createDTO.setPhone("+54 11 5555-0000");
+        createDTO.setEmail("ana@test.com");
+        createDTO.setPassword("hash");
+        createDTO.setRole(Role.ROLE_USER);
+
+        User user = userMapper.toEntity(createDTO);
+
+        assertThat(user.getId()).isNull();
+        assertThat(user.getFirstName()).isEqualTo("Ana");
+        assertThat(user.getLastName()).isEqualTo("Pérez");
+        assertThat(user.getPhone()).isEqualTo("+54 11 5555-0000");
+        assertThat(user.getEmail()).isEqualTo("ana@test.com");
+        assertThat(user.getPassword()).isEqualTo("hash");
+        assertThat(user.getRole()).isEqualTo(Role.ROLE_USER);
+        assertThat(user.getAddress()).isNull();
+    }
+
+    @Test
+    void toAddressEntityCopiesEveryField() {
+        UserAddressDTO addressDTO = new UserAddressDTO();
+        addressDTO.setStreet("Av. Corrientes 1234");
+        addressDTO.setCity("CABA");
+        addressDTO.setZip("C1043");
+        addressDTO.setCountry("Argentina");
+
+        UserAddress address = userMapper.toAddressEntity(addressDTO);
+
+        assertThat(address.getId()).isNull();
+        assertThat(address.getStreet()).isEqualTo("Av. Corrientes 1234");
+        assertThat(address.getCity()).isEqualTo("CABA");
+        assertThat(address.getState()).isNull();
+        assertThat(address.getZip()).isEqualTo("C1043");
+        assertThat(address.getCountry()).isEqualTo("Argentina");
+    }
+
+    private User buildUser() {
+        UserAddress address = new UserAddress();
+        address.setId(40L);
+        address.setStreet("Av. Corrientes 1234");
+        address.setCity("CABA");
+        address.setState("Buenos Aires");
+        address.setZip("C1043");
+        address.setCountry("Argentina");
+
+        User user = new User();
+        user.setId(4L);
+        user.setFirstName("Ana");
+        user.setLastName("Pérez");
+        user.setPhone("+54 11 5555-0000");
+        user.setEmail("ana@test.com");
+        user.setPassword("hash");
+        user.setRole(Role.ROLE_EDITOR);
+        user.setAddress(address);
+
+        Product product = new Product();
+        product.setId(10L);
+
+        ProductFavorite favorite = new ProductFavorite();
+        favorite.setId(30L);
+        favorite.setUser(user);
+        favorite.setProduct(Set.of(product));
+        user.setFavorites(Set.of(favorite));
+
+        Reservation reservation = new Reservation();
+        reservation.setId(20L);
+        reservation.setUser(user);
+        reservation.setProduct(product);
+        reservation.setStartDate(LocalDate.of(2030, 3, 1));
+        reservation.setEndDate(LocalDate.of(2030, 3, 4));
+        user.setReservations(Set.of(reservation));
+        return user;
+    }
+}